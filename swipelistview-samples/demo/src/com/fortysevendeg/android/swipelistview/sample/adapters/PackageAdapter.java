@@ -28,14 +28,15 @@ import android.os.Build;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
+import android.view.ViewStub;
 import android.widget.*;
 
 import com.fortysevendeg.android.swipelistview.R;
-import com.fortysevendeg.swipelistview.SwipeListView;
+import com.fortysevendeg.swipelistview.SwipeAdapter;
 
 import java.util.List;
 
-public class PackageAdapter extends BaseAdapter {
+public class PackageAdapter extends SwipeAdapter<PackageAdapter.ViewHolder> {
 
     private List<PackageItem> data;
     private Context context;
@@ -70,46 +71,52 @@ public class PackageAdapter extends BaseAdapter {
 //    }
 
     @Override
-    public View getView(final int position, View convertView, ViewGroup parent) {
-        final PackageItem item = getItem(position);
-        ViewHolder holder;
-        if (convertView == null) {
-            LayoutInflater li = (LayoutInflater) context.getSystemService(Context.LAYOUT_INFLATER_SERVICE);
-            convertView = li.inflate(R.layout.package_row, parent, false);
-            holder = new ViewHolder();
-            holder.ivImage = (ImageView) convertView.findViewById(R.id.example_row_iv_image);
-            holder.tvTitle = (TextView) convertView.findViewById(R.id.example_row_tv_title);
-            holder.tvDescription = (TextView) convertView.findViewById(R.id.example_row_tv_description);
-            holder.bAction1 = (Button) convertView.findViewById(R.id.example_row_b_action_1);
-            holder.bAction2 = (Button) convertView.findViewById(R.id.example_row_b_action_2);
-            holder.bAction3 = (Button) convertView.findViewById(R.id.example_row_b_action_3);
-            convertView.setTag(holder);
-        } else {
-            holder = (ViewHolder) convertView.getTag();
+    protected View newView(LayoutInflater inflater, int position, ViewGroup parent) {
+        return inflater.inflate(R.layout.package_row, parent, false);
+    }
+
+    @Override
+    protected ViewHolder newHolder(View row) {
+        ViewHolder holder = new ViewHolder();
+        holder.ivImage = (ImageView) row.findViewById(R.id.example_row_iv_image);
+        holder.tvTitle = (TextView) row.findViewById(R.id.example_row_tv_title);
+        holder.tvDescription = (TextView) row.findViewById(R.id.example_row_tv_description);
+        View backView = row.findViewById(R.id.back);
+        if (!(backView instanceof ViewStub)) {
+            onBindBackView(holder, backView, ListView.INVALID_POSITION);
         }
+        return holder;
+    }
 
-        ((SwipeListView)parent).recycle(convertView, position);
+    @Override
+    protected void onBindBackView(ViewHolder holder, View backView, int position) {
+        setActionView(backView.findViewById(R.id.example_row_b_action_1));
+        setActionView(backView.findViewById(R.id.example_row_b_action_2));
+        setActionView(backView.findViewById(R.id.example_row_b_action_3));
+    }
 
+    @Override
+    protected void bindView(ViewHolder holder, int position) {
+        PackageItem item = getItem(position);
         holder.ivImage.setImageDrawable(item.getIcon());
         holder.tvTitle.setText(item.getName());
         holder.tvDescription.setText(item.getPackageName());
+    }
 
-
-        holder.bAction1.setOnClickListener(new View.OnClickListener() {
-            @Override
-            public void onClick(View v) {
+    @Override
+    @TargetApi(14)
+    protected void onActionClick(View actionView, int position) {
+        PackageItem item = getItem(position);
+        switch (actionView.getId()) {
+            case R.id.example_row_b_action_1:
                 Intent intent = context.getPackageManager().getLaunchIntentForPackage(item.getPackageName());
                 if (intent != null) {
                     context.startActivity(intent);
                 } else {
                     Toast.makeText(context, R.string.cantOpen, Toast.LENGTH_SHORT).show();
                 }
-            }
-        });
-
-        holder.bAction2.setOnClickListener(new View.OnClickListener() {
-            @Override
-            public void onClick(View v) {
+                break;
+            case R.id.example_row_b_action_2:
                 if (isPlayStoreInstalled()) {
                     context.startActivity(new Intent(Intent.ACTION_VIEW,
                             Uri.parse("market://details?id=" + item.getPackageName())));
@@ -117,13 +124,8 @@ public class PackageAdapter extends BaseAdapter {
                     context.startActivity(new Intent(Intent.ACTION_VIEW,
                             Uri.parse("http://play.google.com/store/apps/details?id=" + item.getPackageName())));
                 }
-            }
-        });
-
-        holder.bAction3.setOnClickListener(new View.OnClickListener() {
-            @Override
-            @TargetApi(14)
-            public void onClick(View v) {
+                break;
+            case R.id.example_row_b_action_3:
                 Uri packageUri = Uri.parse("package:" + item.getPackageName());
                 Intent uninstallIntent;
                 if (Build.VERSION.SDK_INT < Build.VERSION_CODES.ICE_CREAM_SANDWICH) {
@@ -132,20 +134,14 @@ public class PackageAdapter extends BaseAdapter {
                     uninstallIntent = new Intent(Intent.ACTION_UNINSTALL_PACKAGE, packageUri);
                 }
                 context.startActivity(uninstallIntent);
-            }
-        });
-
-
-        return convertView;
+                break;
+        }
     }
 
     static class ViewHolder {
         ImageView ivImage;
         TextView tvTitle;
         TextView tvDescription;
-        Button bAction1;
-        Button bAction2;
-        Button bAction3;
     }
 
     private boolean isPlayStoreInstalled() {
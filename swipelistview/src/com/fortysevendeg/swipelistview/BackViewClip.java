@@ -0,0 +1,111 @@
+/*
+ * Copyright (C) 2013 47 Degrees, LLC
+ * http://47deg.com
+ * hello@47deg.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.fortysevendeg.swipelistview;
+
+import android.graphics.Rect;
+import android.os.Build;
+import android.view.View;
+
+import java.lang.reflect.Method;
+
+/**
+ * Clips a back view to the strip its front view has uncovered, so the covered part is not drawn
+ * under the front view. Uses View.setClipBounds, a no-op before API 18. It is bound by reflection
+ * as the maven build compiles against an older platform
+ */
+final class BackViewClip {
+
+    private static final int JELLY_BEAN_MR2 = 18;
+
+    private static Method setClipBounds;
+    private static boolean bound = false;
+
+    /**
+     * Clips are only set from the UI thread, so the rect and the argument array are shared
+     */
+    private static final Rect clip = new Rect();
+    private static final Object[] clipArgs = new Object[1];
+
+    private BackViewClip() {
+    }
+
+    /**
+     * Clips the back view to the strip uncovered by the front view. Both views must be siblings,
+     * the clip is removed otherwise
+     *
+     * @param backView     back view
+     * @param frontView    front view
+     * @param translationX translation of the front view
+     */
+    static void set(View backView, View frontView, float translationX) {
+        if (!bind() || backView == null) {
+            return;
+        }
+        if (frontView == null || frontView.getParent() != backView.getParent()) {
+            invoke(backView, null);
+            return;
+        }
+        int width = frontView.getWidth();
+        int uncovered = Math.min(width, (int) Math.ceil(Math.abs(translationX)));
+        int left = frontView.getLeft() - backView.getLeft();
+        int top = frontView.getTop() - backView.getTop();
+        if (translationX > 0) {
+            clip.set(left, top, left + uncovered, top + frontView.getHeight());
+        } else {
+            clip.set(left + width - uncovered, top, left + width, top + frontView.getHeight());
+        }
+        invoke(backView, clip);
+    }
+
+    /**
+     * Removes the clip, while the front view animates
+     *
+     * @param backView back view
+     */
+    static void clear(View backView) {
+        if (bind() && backView != null) {
+            invoke(backView, null);
+        }
+    }
+
+    private static boolean bind() {
+        if (!bound) {
+            bound = true;
+            if (Build.VERSION.SDK_INT >= JELLY_BEAN_MR2) {
+                try {
+                    setClipBounds = View.class.getMethod("setClipBounds", Rect.class);
+                } catch (Exception e) {
+                    setClipBounds = null;
+                }
+            }
+        }
+        return setClipBounds != null;
+    }
+
+    private static void invoke(View view, Rect bounds) {
+        clipArgs[0] = bounds;
+        try {
+            setClipBounds.invoke(view, clipArgs);
+        } catch (Exception e) {
+            setClipBounds = null;
+        }
+        clipArgs[0] = null;
+    }
+
+}
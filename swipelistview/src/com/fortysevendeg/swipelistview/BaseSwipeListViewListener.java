@@ -33,10 +33,33 @@ public class BaseSwipeListViewListener implements SwipeListViewListener {
     public void onClickBackView(int position) {
     }
 
+    @Override
+    public void onClickBackAction(int position, int actionId) {
+    }
+
     @Override
     public void onDismiss(int[] reverseSortedPositions) {
     }
 
+    /**
+     * Expands the ranges and calls onDismiss, override it to handle whole ranges at once
+     */
+    @Override
+    public void onDismissRanges(int[] reverseSortedStarts, int[] counts) {
+        int total = 0;
+        for (int count : counts) {
+            total += count;
+        }
+        int[] reverseSortedPositions = new int[total];
+        int index = 0;
+        for (int i = 0; i < reverseSortedStarts.length; i++) {
+            for (int position = reverseSortedStarts[i] + counts[i] - 1; position >= reverseSortedStarts[i]; position--) {
+                reverseSortedPositions[index++] = position;
+            }
+        }
+        onDismiss(reverseSortedPositions);
+    }
+
     @Override
     public int onChangeSwipeMode(int position) {
         return SwipeListView.SWIPE_MODE_DEFAULT;
@@ -46,6 +69,10 @@ public class BaseSwipeListViewListener implements SwipeListViewListener {
     public void onChoiceChanged(int position, boolean selected) {
     }
 
+    @Override
+    public void onChoiceRangeChanged(int from, int to) {
+    }
+
     @Override
     public void onChoiceStarted() {
     }
@@ -0,0 +1,320 @@
+/*
+ * Copyright (C) 2013 47 Degrees, LLC
+ * http://47deg.com
+ * hello@47deg.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.fortysevendeg.swipelistview;
+
+import android.view.View;
+import android.view.ViewGroup;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Groups the dismisses in flight. Every animation taking part registers with begin() and finishes
+ * with end(); the dismissed positions are committed to the listener on the frame the last one ends.
+ * Dismisses requested while a transaction is running join it, so they are committed together. The
+ * row states of the dismissed positions are dropped once the listener returns, if it removed them
+ */
+class DismissTransaction {
+
+    private SwipeListView swipeListView;
+
+    private SwipeAnimator swipeAnimator;
+
+    private int collapseMode = SwipeListView.SWIPE_DISMISS_COLLAPSE_LAYOUT;
+
+    private SwipeMetricsTracker metricsTracker;
+
+    private List<PendingDismissData> rows = new ArrayList<PendingDismissData>();
+    private List<PendingDismissData> committedRows = new ArrayList<PendingDismissData>();
+    private RangeSet positions = new RangeSet();
+    private boolean ranged;
+
+    private int running = 0;
+    private int generation = 0;
+
+    /**
+     * Constructor
+     *
+     * @param swipeListView SwipeListView
+     * @param swipeAnimator animation backend
+     */
+    DismissTransaction(SwipeListView swipeListView, SwipeAnimator swipeAnimator) {
+        this.swipeListView = swipeListView;
+        this.swipeAnimator = swipeAnimator;
+    }
+
+    /**
+     * Set how dismissed rows collapse
+     *
+     * @param collapseMode SWIPE_DISMISS_COLLAPSE_LAYOUT or SWIPE_DISMISS_COLLAPSE_TRANSLATION
+     */
+    void setCollapseMode(int collapseMode) {
+        this.collapseMode = collapseMode;
+    }
+
+    /**
+     * Set the tracker that measures the commits
+     *
+     * @param metricsTracker tracker, or null
+     */
+    void setMetricsTracker(SwipeMetricsTracker metricsTracker) {
+        this.metricsTracker = metricsTracker;
+    }
+
+    /**
+     * Registers an animation that must end before committing
+     *
+     * @return generation to hand back to end()
+     */
+    int begin() {
+        running++;
+        return generation;
+    }
+
+    /**
+     * @param generation value returned by begin()
+     * @return true if the transaction that began the animation is still running
+     */
+    boolean isCurrent(int generation) {
+        return generation == this.generation;
+    }
+
+    /**
+     * Unregisters an animation, committing if it was the last one. Animations from a transaction
+     * already committed or cancelled are ignored
+     *
+     * @param generation value returned by begin()
+     */
+    void end(int generation) {
+        if (generation != this.generation || running == 0) {
+            return;
+        }
+        running--;
+        commitIfIdle();
+    }
+
+    /**
+     * Adds a position whose row is not on screen
+     *
+     * @param position position in list
+     */
+    void add(int position) {
+        positions.add(position, position);
+    }
+
+    /**
+     * Adds a range of positions. The transaction will be notified with onDismissRanges
+     *
+     * @param from first position
+     * @param to   last position
+     */
+    void addRange(int from, int to) {
+        positions.add(from, to);
+        ranged = true;
+    }
+
+    /**
+     * Collapses a visible row and adds it to the transaction. Unlike the swipe animations, this
+     * allocates the pending dismiss, its listener and its animator, once per dismissed row
+     *
+     * @param dismissView     row view
+     * @param dismissPosition position in list
+     * @param duration        animation time
+     */
+    void collapse(final View dismissView, int dismissPosition, long duration) {
+        SwipeTrace.begin(SwipeTrace.DISMISS_COLLAPSE);
+        final ViewGroup.LayoutParams lp = dismissView.getLayoutParams();
+        final int originalHeight = dismissView.getHeight();
+        final PendingDismissData pendingDismiss = new PendingDismissData(dismissPosition, dismissView, originalHeight);
+        final int generation = begin();
+
+        final boolean translation = collapseMode == SwipeListView.SWIPE_DISMISS_COLLAPSE_TRANSLATION;
+
+        rows.add(pendingDismiss);
+        positions.add(dismissPosition, dismissPosition);
+        pendingDismiss.animator = swipeAnimator.animateFraction(duration, new SwipeAnimator.FractionListener() {
+            @Override
+            public void onFraction(float fraction) {
+                if (translation) {
+                    pendingDismiss.collapse = fraction;
+                    applyCollapse();
+                } else {
+                    lp.height = originalHeight - (int) ((originalHeight - 1) * fraction);
+                    dismissView.setLayoutParams(lp);
+                }
+            }
+
+            @Override
+            public void onEnd() {
+                end(generation);
+            }
+        });
+        SwipeTrace.end();
+    }
+
+    /**
+     * Commits now if no animation is running
+     */
+    void commitIfIdle() {
+        if (running == 0 && positions.size() > 0) {
+            commit();
+        }
+    }
+
+    /**
+     * Stops the running animations and restores the rows without notifying any dismiss
+     */
+    void cancel() {
+        List<PendingDismissData> cancelled = swapRows();
+        reset();
+        for (PendingDismissData pendingDismiss : cancelled) {
+            pendingDismiss.animator.cancel();
+        }
+        restoreViews(cancelled);
+    }
+
+    private void commit() {
+        SwipeTrace.begin(SwipeTrace.DISMISS_COMMIT);
+        long start = metricsTracker != null ? System.nanoTime() : 0;
+        int count = positions.getCovered();
+        List<PendingDismissData> committed = swapRows();
+        int size = positions.size();
+        int[] reverseSortedStarts = new int[size];
+        int[] counts = new int[size];
+        for (int i = 0; i < size; i++) {
+            int range = size - 1 - i;
+            reverseSortedStarts[i] = positions.getStart(range);
+            counts[i] = positions.getEnd(range) - reverseSortedStarts[i] + 1;
+        }
+        int[] reverseSortedPositions = null;
+        if (!ranged) {
+            reverseSortedPositions = new int[positions.getCovered()];
+            int index = 0;
+            for (int range = positions.size() - 1; range >= 0; range--) {
+                for (int position = positions.getEnd(range); position >= positions.getStart(range); position--) {
+                    reverseSortedPositions[index++] = position;
+                }
+            }
+        }
+        boolean notifyRanges = ranged;
+        reset();
+        swipeListView.beginDismissCommit();
+        try {
+            if (notifyRanges) {
+                swipeListView.onDismissRanges(reverseSortedStarts, counts);
+            } else {
+                swipeListView.onDismiss(reverseSortedPositions);
+            }
+        } finally {
+            swipeListView.endDismissCommit(reverseSortedStarts, counts);
+        }
+        restoreViews(committed);
+        if (metricsTracker != null) {
+            metricsTracker.onDismissCommitted(count, System.nanoTime() - start);
+        }
+        SwipeTrace.end();
+    }
+
+    /**
+     * Hands the current rows over, so dismisses started from the listener callbacks go to a
+     * fresh list
+     *
+     * @return rows of the finished transaction
+     */
+    private List<PendingDismissData> swapRows() {
+        List<PendingDismissData> finished = rows;
+        rows = committedRows;
+        committedRows = finished;
+        return finished;
+    }
+
+    /**
+     * Starts a new transaction. Animations still running from this one will be ignored
+     */
+    private void reset() {
+        positions.clear();
+        ranged = false;
+        running = 0;
+        generation++;
+    }
+
+    /**
+     * Resets view presentation, every row to its own height
+     *
+     * @param finished rows of the finished transaction
+     */
+    private void restoreViews(List<PendingDismissData> finished) {
+        for (PendingDismissData pendingDismiss : finished) {
+            swipeAnimator.setAlpha(pendingDismiss.view, 1f);
+            swipeAnimator.setTranslationX(pendingDismiss.view, 0);
+            if (collapseMode == SwipeListView.SWIPE_DISMISS_COLLAPSE_LAYOUT) {
+                ViewGroup.LayoutParams lp = pendingDismiss.view.getLayoutParams();
+                lp.height = pendingDismiss.height;
+                pendingDismiss.view.setLayoutParams(lp);
+            }
+        }
+        if (collapseMode == SwipeListView.SWIPE_DISMISS_COLLAPSE_TRANSLATION) {
+            for (int i = 0; i < swipeListView.getChildCount(); i++) {
+                swipeAnimator.setTranslationY(swipeListView.getChildAt(i), 0);
+            }
+        }
+        finished.clear();
+    }
+
+    /**
+     * Slides up the rows below the collapsing ones. Dismissed rows keep their height and fade out,
+     * so the list is laid out only once, when the dismiss is committed
+     */
+    private void applyCollapse() {
+        SwipeTrace.begin(SwipeTrace.DISMISS_COLLAPSE);
+        int childCount = swipeListView.getChildCount();
+        for (int i = 0; i < childCount; i++) {
+            View child = swipeListView.getChildAt(i);
+            float offset = 0;
+            for (int j = 0; j < rows.size(); j++) {
+                PendingDismissData pendingDismiss = rows.get(j);
+                if (pendingDismiss.view == child) {
+                    swipeAnimator.setAlpha(child, Math.min(swipeAnimator.getAlpha(child), 1f - pendingDismiss.collapse));
+                } else if (pendingDismiss.view.getTop() < child.getTop()) {
+                    offset += pendingDismiss.height * pendingDismiss.collapse;
+                }
+            }
+            swipeAnimator.setTranslationY(child, -offset);
+        }
+        SwipeTrace.end();
+    }
+
+    /**
+     * Class that saves pending dismiss data
+     */
+    static class PendingDismissData {
+        public int position;
+        public View view;
+        public int height;
+        public float collapse;
+        public SwipeAnimator.Running animator;
+
+        public PendingDismissData(int position, View view, int height) {
+            this.position = position;
+            this.view = view;
+            this.height = height;
+        }
+    }
+
+}
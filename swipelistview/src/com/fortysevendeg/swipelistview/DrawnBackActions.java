@@ -0,0 +1,201 @@
+/*
+ * Copyright (C) 2013 47 Degrees, LLC
+ * http://47deg.com
+ * hello@47deg.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.fortysevendeg.swipelistview;
+
+import android.content.Context;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
+import android.graphics.Rect;
+import android.graphics.drawable.Drawable;
+import android.text.TextPaint;
+import android.view.View;
+
+/**
+ * Lays out and draws the SwipeBackActions uncovered by a translated front view. The rects are
+ * computed once per row in list coordinates and shared by the drawing and the tap hit test
+ */
+class DrawnBackActions {
+
+    private static final SwipeBackAction[] NONE = new SwipeBackAction[0];
+
+    private static final float LABEL_SIZE_DIP = 12;
+
+    private static final float SPACING_DIP = 4;
+
+    private SwipeBackAction[] swipeLeftActions = NONE;
+    private SwipeBackAction[] swipeRightActions = NONE;
+
+    private final Paint backgroundPaint = new Paint();
+    private final TextPaint labelPaint = new TextPaint(Paint.ANTI_ALIAS_FLAG);
+    private final float spacing;
+
+    private final Rect strip = new Rect();
+    private Rect[] bounds = new Rect[0];
+    private SwipeBackAction[] laidOut = NONE;
+    private int laidOutCount = 0;
+
+    /**
+     * Constructor
+     *
+     * @param context Context, for the display density
+     */
+    DrawnBackActions(Context context) {
+        float density = context.getResources().getDisplayMetrics().density;
+        labelPaint.setTextSize(LABEL_SIZE_DIP * density);
+        labelPaint.setColor(Color.WHITE);
+        labelPaint.setTextAlign(Paint.Align.CENTER);
+        spacing = SPACING_DIP * density;
+    }
+
+    /**
+     * Set the actions revealed when swiping to the left, drawn from the right edge
+     *
+     * @param actions actions, or null for none
+     */
+    void setSwipeLeftActions(SwipeBackAction[] actions) {
+        swipeLeftActions = actions != null ? actions : NONE;
+        ensureCapacity(swipeLeftActions.length);
+    }
+
+    /**
+     * Set the actions revealed when swiping to the right, drawn from the left edge
+     *
+     * @param actions actions, or null for none
+     */
+    void setSwipeRightActions(SwipeBackAction[] actions) {
+        swipeRightActions = actions != null ? actions : NONE;
+        ensureCapacity(swipeRightActions.length);
+    }
+
+    /**
+     * @return true if there is nothing to draw
+     */
+    boolean isEmpty() {
+        return swipeLeftActions.length == 0 && swipeRightActions.length == 0;
+    }
+
+    /**
+     * Splits the strip uncovered by the front view between the actions of the swipe direction.
+     * The result is kept until the next call
+     *
+     * @param row          row view, child of the list
+     * @param front        front view of the row
+     * @param translationX translation of the front view
+     * @return number of actions laid out
+     */
+    int layout(View row, View front, float translationX) {
+        laidOutCount = 0;
+        laidOut = translationX > 0 ? swipeRightActions : swipeLeftActions;
+        if (translationX == 0 || laidOut.length == 0) {
+            return 0;
+        }
+        int left = front.getLeft();
+        int top = front.getTop();
+        for (View view = front; view != row && view.getParent() instanceof View; ) {
+            view = (View) view.getParent();
+            left += view.getLeft();
+            top += view.getTop();
+        }
+        int width = front.getWidth();
+        int uncovered = Math.min(width, (int) Math.abs(translationX));
+        if (translationX > 0) {
+            strip.set(left, top, left + uncovered, top + front.getHeight());
+        } else {
+            strip.set(left + width - uncovered, top, left + width, top + front.getHeight());
+        }
+        int count = laidOut.length;
+        for (int i = 0; i < count; i++) {
+            bounds[i].set(strip.left + strip.width() * i / count, strip.top,
+                    strip.left + strip.width() * (i + 1) / count, strip.bottom);
+        }
+        laidOutCount = count;
+        return count;
+    }
+
+    /**
+     * Draws the actions of the last layout, clipped to the uncovered strip
+     *
+     * @param canvas list canvas
+     */
+    void draw(Canvas canvas) {
+        if (laidOutCount == 0) {
+            return;
+        }
+        canvas.save();
+        canvas.clipRect(strip);
+        float labelHeight = labelPaint.descent() - labelPaint.ascent();
+        for (int i = 0; i < laidOutCount; i++) {
+            SwipeBackAction action = laidOut[i];
+            Rect rect = bounds[i];
+            backgroundPaint.setColor(action.getBackgroundColor());
+            canvas.drawRect(rect, backgroundPaint);
+
+            Drawable icon = action.getIcon();
+            CharSequence label = action.getLabel();
+            int iconWidth = icon != null ? icon.getIntrinsicWidth() : 0;
+            int iconHeight = icon != null ? icon.getIntrinsicHeight() : 0;
+            float contentHeight = iconHeight;
+            if (label != null) {
+                contentHeight += icon != null ? spacing + labelHeight : labelHeight;
+            }
+            int centerX = rect.centerX();
+            float y = rect.centerY() - contentHeight / 2;
+            if (icon != null) {
+                icon.setBounds(centerX - iconWidth / 2, (int) y, centerX - iconWidth / 2 + iconWidth, (int) y + iconHeight);
+                icon.draw(canvas);
+                y += iconHeight + spacing;
+            }
+            if (label != null) {
+                canvas.drawText(label, 0, label.length(), centerX, y - labelPaint.ascent(), labelPaint);
+            }
+        }
+        canvas.restore();
+    }
+
+    /**
+     * Finds the action under a point, among the ones of the last layout
+     *
+     * @param x         x in list coordinates
+     * @param y         y in list coordinates
+     * @param outBounds set to the bounds of the action found
+     * @return action, or null if there is none
+     */
+    SwipeBackAction actionAt(int x, int y, Rect outBounds) {
+        for (int i = 0; i < laidOutCount; i++) {
+            if (bounds[i].contains(x, y)) {
+                outBounds.set(bounds[i]);
+                return laidOut[i];
+            }
+        }
+        return null;
+    }
+
+    private void ensureCapacity(int count) {
+        if (count > bounds.length) {
+            Rect[] newBounds = new Rect[count];
+            System.arraycopy(bounds, 0, newBounds, 0, bounds.length);
+            for (int i = bounds.length; i < count; i++) {
+                newBounds[i] = new Rect();
+            }
+            bounds = newBounds;
+        }
+    }
+
+}
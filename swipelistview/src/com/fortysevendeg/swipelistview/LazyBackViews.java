@@ -0,0 +1,152 @@
+/*
+ * Copyright (C) 2013 47 Degrees, LLC
+ * http://47deg.com
+ * hello@47deg.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.fortysevendeg.swipelistview;
+
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+import android.view.ViewParent;
+import android.view.ViewStub;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Back views declared as a ViewStub are only inflated when the row starts moving, and given back
+ * to a small pool when the row closes or is recycled, with the stub put back in place
+ */
+class LazyBackViews {
+
+    private static final int POOL_SIZE = 4;
+
+    private final int backViewId;
+
+    private final SwipeAnimator swipeAnimator;
+
+    private final List<View> pool = new ArrayList<View>(POOL_SIZE);
+
+    /**
+     * Constructor
+     *
+     * @param backViewId    id of the back view, or of the stub that stands for it
+     * @param swipeAnimator animator used to reset the pooled views
+     */
+    LazyBackViews(int backViewId, SwipeAnimator swipeAnimator) {
+        this.backViewId = backViewId;
+        this.swipeAnimator = swipeAnimator;
+    }
+
+    /**
+     * Replaces the stub of a row with its back view, taken from the pool or inflated
+     *
+     * @param holder row holder, its back view is updated
+     * @return the back view, as it was if it was not a stub
+     */
+    View inflate(SwipeViewHolder holder) {
+        View backView = holder.backView;
+        if (!(backView instanceof ViewStub) || !(backView.getParent() instanceof ViewGroup)) {
+            return backView;
+        }
+        ViewStub stub = (ViewStub) backView;
+        ViewGroup parent = (ViewGroup) stub.getParent();
+        int layout = stub.getLayoutResource();
+        View view = take(layout);
+        if (view == null) {
+            view = LayoutInflater.from(stub.getContext()).inflate(layout, parent, false);
+            view.setTag(R.id.swipelist_back_layout, layout);
+        }
+        int index = parent.indexOfChild(stub);
+        parent.removeViewInLayout(stub);
+        view.setId(backViewId);
+        view.setTag(R.id.swipelist_back_stub, stub);
+        parent.addView(view, index, stub.getLayoutParams());
+        holder.backView = view;
+        return view;
+    }
+
+    /**
+     * Puts the stub back in a row and pools its back view, reset so it comes back as inflated:
+     * no clip, no transform, visible and without click listener. Rows without a lazy back view
+     * are left alone
+     *
+     * @param holder row holder, its back view is updated
+     */
+    void release(SwipeViewHolder holder) {
+        View backView = holder.backView;
+        if (!isLazy(backView)) {
+            return;
+        }
+        ViewStub stub = (ViewStub) backView.getTag(R.id.swipelist_back_stub);
+        ViewGroup parent = (ViewGroup) backView.getParent();
+        int index = parent.indexOfChild(backView);
+        parent.removeViewInLayout(backView);
+        backView.setTag(R.id.swipelist_back_stub, null);
+        backView.setOnClickListener(null);
+        backView.setClickable(false);
+        backView.setPressed(false);
+        backView.setVisibility(View.VISIBLE);
+        BackViewClip.clear(backView);
+        swipeAnimator.setTranslationX(backView, 0);
+        swipeAnimator.setAlpha(backView, 1);
+        parent.addView(stub, index);
+        holder.backView = stub;
+        if (pool.size() < POOL_SIZE) {
+            pool.add(backView);
+        }
+    }
+
+    /**
+     * Get if a back view was inflated from a stub
+     *
+     * @param backView back view
+     * @return true if it is given back to the pool when its row closes
+     */
+    static boolean isLazy(View backView) {
+        return backView != null && backView.getTag(R.id.swipelist_back_stub) instanceof ViewStub;
+    }
+
+    /**
+     * Finds the row of a view
+     *
+     * @param list list
+     * @param view view inside a row
+     * @return row, or null if the view is not in the list
+     */
+    static View rowOf(ViewGroup list, View view) {
+        while (view != null) {
+            ViewParent parent = view.getParent();
+            if (parent == list) {
+                return view;
+            }
+            view = parent instanceof View ? (View) parent : null;
+        }
+        return null;
+    }
+
+    private View take(int layout) {
+        for (int i = pool.size() - 1; i >= 0; i--) {
+            Object tag = pool.get(i).getTag(R.id.swipelist_back_layout);
+            if (tag instanceof Integer && (Integer) tag == layout) {
+                return pool.remove(i);
+            }
+        }
+        return null;
+    }
+
+}
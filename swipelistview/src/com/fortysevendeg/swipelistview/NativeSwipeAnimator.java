@@ -0,0 +1,113 @@
+/*
+ * Copyright (C) 2013 47 Degrees, LLC
+ * http://47deg.com
+ * hello@47deg.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.fortysevendeg.swipelistview;
+
+import android.animation.Animator;
+import android.animation.AnimatorListenerAdapter;
+import android.animation.ValueAnimator;
+import android.view.View;
+import android.view.ViewPropertyAnimator;
+import android.view.animation.Interpolator;
+
+/**
+ * Backend on the platform animators and view properties, API 12 and later
+ */
+class NativeSwipeAnimator extends SwipeAnimator {
+
+    @Override
+    float getTranslationX(View view) {
+        return view.getTranslationX();
+    }
+
+    @Override
+    void setTranslationX(View view, float value) {
+        view.setTranslationX(value);
+    }
+
+    @Override
+    void setTranslationY(View view, float value) {
+        view.setTranslationY(value);
+    }
+
+    @Override
+    float getAlpha(View view) {
+        return view.getAlpha();
+    }
+
+    @Override
+    void setAlpha(View view, float value) {
+        view.setAlpha(value);
+    }
+
+    @Override
+    void animate(View view, float translationX, float alpha, long duration, Interpolator interpolator, EndListener listener) {
+        ViewPropertyAnimator animator = view.animate().translationX(translationX);
+        if (!Float.isNaN(alpha)) {
+            animator.alpha(alpha);
+        }
+        animator.setInterpolator(interpolator).setDuration(duration).setListener(listenerFor(listener));
+    }
+
+    private static Animator.AnimatorListener listenerFor(final EndListener listener) {
+        if (listener.backendListener == null) {
+            listener.backendListener = new AnimatorListenerAdapter() {
+                @Override
+                public void onAnimationEnd(Animator animation) {
+                    listener.onAnimationEnd();
+                }
+            };
+        }
+        return (Animator.AnimatorListener) listener.backendListener;
+    }
+
+    @Override
+    Running animateFraction(long duration, FractionListener listener) {
+        FractionAnimation animation = new FractionAnimation(ValueAnimator.ofFloat(0f, 1f).setDuration(duration), listener);
+        animation.animator.start();
+        return animation;
+    }
+
+    private static class FractionAnimation extends AnimatorListenerAdapter implements ValueAnimator.AnimatorUpdateListener, Running {
+
+        private final ValueAnimator animator;
+        private final FractionListener listener;
+
+        FractionAnimation(ValueAnimator animator, FractionListener listener) {
+            this.animator = animator;
+            this.listener = listener;
+            animator.addUpdateListener(this);
+            animator.addListener(this);
+        }
+
+        @Override
+        public void onAnimationUpdate(ValueAnimator valueAnimator) {
+            listener.onFraction(valueAnimator.getAnimatedFraction());
+        }
+
+        @Override
+        public void onAnimationEnd(Animator animation) {
+            listener.onEnd();
+        }
+
+        @Override
+        public void cancel() {
+            animator.cancel();
+        }
+    }
+
+}
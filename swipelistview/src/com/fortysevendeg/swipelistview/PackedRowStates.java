@@ -0,0 +1,361 @@
+/*
+ * Copyright (C) 2013 47 Degrees, LLC
+ * http://47deg.com
+ * hello@47deg.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.fortysevendeg.swipelistview;
+
+/**
+ * Row state store indexed by adapter position. Opened and opened to the right take one bit per
+ * row, packed in long words, and opened rows are also indexed in a sorted array as only a few of
+ * them are open at a time. Checked rows are stored as ranges of the positions that differ from
+ * the default (unchecked, or checked after a select all), so bulk choices are cheap
+ */
+class PackedRowStates extends RowStates {
+
+    private static final int ADDRESS_BITS_PER_WORD = 6;
+
+    private static final int BITS_PER_WORD = 1 << ADDRESS_BITS_PER_WORD;
+
+    private static final long[] EMPTY = new long[0];
+
+    private long[] opened = EMPTY;
+    private long[] openedRight = EMPTY;
+
+    private int count = 0;
+
+    private RangeSet checked = new RangeSet();
+    private boolean allChecked = false;
+
+    private int[] openedPositions = new int[4];
+    private int openedCount = 0;
+
+    @Override
+    int getCount() {
+        return count;
+    }
+
+    /**
+     * Rows added at the end after a select all are not selected. The select all ends when there
+     * are no rows left
+     */
+    @Override
+    void setCount(int count) {
+        int oldCount = this.count;
+        resize(count);
+        if (count == 0) {
+            clearChecked();
+        } else if (allChecked && count > oldCount) {
+            checked.add(oldCount, count - 1);
+        }
+    }
+
+    private void resize(int count) {
+        if (count < this.count) {
+            while (openedCount > 0 && openedPositions[openedCount - 1] >= count) {
+                openedCount--;
+            }
+            clearFrom(opened, count);
+            clearFrom(openedRight, count);
+            checked.removeFrom(count);
+        }
+        int words = wordsFor(count);
+        if (words > opened.length || words < opened.length / 4) {
+            int capacity = words > opened.length ? Math.max(words, opened.length + (opened.length >> 1)) : words;
+            opened = copyOf(opened, capacity);
+            openedRight = copyOf(openedRight, capacity);
+        }
+        this.count = count;
+    }
+
+    @Override
+    boolean isOpened(int position) {
+        return get(opened, position);
+    }
+
+    @Override
+    boolean isOpenedRight(int position) {
+        return get(openedRight, position);
+    }
+
+    @Override
+    boolean isChecked(int position) {
+        return position >= 0 && position < count && checked.contains(position) != allChecked;
+    }
+
+    @Override
+    void setOpened(int position, boolean value) {
+        if (value != get(opened, position) && position >= 0) {
+            int index = indexOfOpened(position);
+            if (value) {
+                index = ~index;
+                if (openedCount == openedPositions.length) {
+                    int[] newPositions = new int[openedCount * 2];
+                    System.arraycopy(openedPositions, 0, newPositions, 0, openedCount);
+                    openedPositions = newPositions;
+                }
+                System.arraycopy(openedPositions, index, openedPositions, index + 1, openedCount - index);
+                openedPositions[index] = position;
+                openedCount++;
+            } else {
+                openedCount--;
+                System.arraycopy(openedPositions, index + 1, openedPositions, index, openedCount - index);
+            }
+        }
+        opened = set(opened, position, value);
+        if (!value) {
+            openedRight = set(openedRight, position, false);
+        }
+    }
+
+    @Override
+    void setOpenedRight(int position, boolean value) {
+        openedRight = set(openedRight, position, value);
+    }
+
+    @Override
+    void setChecked(int position, boolean value) {
+        setCheckedRange(position, position, value);
+    }
+
+    @Override
+    void setCheckedRange(int from, int to, boolean value) {
+        from = Math.max(from, 0);
+        to = Math.min(to, count - 1);
+        if (from > to) {
+            return;
+        }
+        if (value != allChecked) {
+            checked.add(from, to);
+        } else {
+            checked.remove(from, to);
+        }
+    }
+
+    @Override
+    void clearChecked() {
+        checked.clear();
+        allChecked = false;
+    }
+
+    @Override
+    void checkAll() {
+        checked.clear();
+        allChecked = true;
+    }
+
+    @Override
+    void invertChecked() {
+        allChecked = !allChecked;
+    }
+
+    @Override
+    int getOpenedCount() {
+        return openedCount;
+    }
+
+    @Override
+    void closeOpenedOutside(int from, int to) {
+        int kept = 0;
+        for (int i = 0; i < openedCount; i++) {
+            int position = openedPositions[i];
+            if (position >= from && position <= to) {
+                openedPositions[kept++] = position;
+            } else {
+                opened = set(opened, position, false);
+                openedRight = set(openedRight, position, false);
+            }
+        }
+        openedCount = kept;
+    }
+
+    @Override
+    void insertRows(int position, int count) {
+        position = Math.max(position, 0);
+        if (count <= 0 || position > this.count) {
+            return;
+        }
+        resize(this.count + count);
+        for (int i = openedCount - 1; i >= 0 && openedPositions[i] >= position; i--) {
+            openedPositions[i] = moveBits(openedPositions[i], openedPositions[i] + count);
+        }
+        checked.insertGap(position, count);
+        if (allChecked) {
+            checked.add(position, position + count - 1);
+        }
+    }
+
+    @Override
+    void removeRows(int position, int count) {
+        position = Math.max(position, 0);
+        count = Math.min(count, this.count - position);
+        if (count <= 0) {
+            return;
+        }
+        int end = position + count;
+        int kept = 0;
+        for (int i = 0; i < openedCount; i++) {
+            int opened = openedPositions[i];
+            if (opened < position) {
+                kept++;
+            } else if (opened < end) {
+                this.opened = set(this.opened, opened, false);
+                openedRight = set(openedRight, opened, false);
+            } else {
+                openedPositions[kept++] = moveBits(opened, opened - count);
+            }
+        }
+        openedCount = kept;
+        checked.removeGap(position, count);
+        setCount(this.count - count);
+    }
+
+    /**
+     * Moves the opened bits of a row, the target bits must be clear
+     *
+     * @param from old position
+     * @param to   new position
+     * @return new position
+     */
+    private int moveBits(int from, int to) {
+        boolean right = get(openedRight, from);
+        opened = set(opened, from, false);
+        openedRight = set(openedRight, from, false);
+        opened = set(opened, to, true);
+        openedRight = set(openedRight, to, right);
+        return to;
+    }
+
+    /**
+     * Binary search in the opened index
+     *
+     * @param position position in list
+     * @return index of the position, or the bitwise complement of its insertion point
+     */
+    private int indexOfOpened(int position) {
+        int low = 0;
+        int high = openedCount - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int midPosition = openedPositions[mid];
+            if (midPosition < position) {
+                low = mid + 1;
+            } else if (midPosition > position) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return ~low;
+    }
+
+    @Override
+    int getCheckedCount() {
+        return allChecked ? count - checked.getCovered() : checked.getCovered();
+    }
+
+    @Override
+    int nextChecked(int position) {
+        position = Math.max(position, 0);
+        if (position >= count) {
+            return -1;
+        }
+        int next = allChecked ? checked.nextOut(position) : checked.nextIn(position);
+        return next >= 0 && next < count ? next : -1;
+    }
+
+    @Override
+    int nextUnchecked(int position) {
+        position = Math.max(position, 0);
+        if (position >= count) {
+            return count;
+        }
+        int next = allChecked ? checked.nextIn(position) : checked.nextOut(position);
+        return next >= 0 && next < count ? next : count;
+    }
+
+    private boolean get(long[] words, int position) {
+        if (position < 0) {
+            return false;
+        }
+        int word = position >> ADDRESS_BITS_PER_WORD;
+        return word < words.length && (words[word] & (1L << position)) != 0;
+    }
+
+    private long[] set(long[] words, int position, boolean value) {
+        if (position < 0) {
+            return words;
+        }
+        int word = position >> ADDRESS_BITS_PER_WORD;
+        if (word >= words.length) {
+            if (!value) {
+                return words;
+            }
+            words = grow(words, word + 1);
+        }
+        if (value) {
+            words[word] |= 1L << position;
+        } else {
+            words[word] &= ~(1L << position);
+        }
+        if (position >= count) {
+            if (allChecked) {
+                checked.add(count, position);
+            }
+            count = position + 1;
+        }
+        return words;
+    }
+
+    /**
+     * Writes past the adapter size (headers, late notifications) grow every flag array together
+     */
+    private long[] grow(long[] words, int minWords) {
+        int capacity = Math.max(minWords, words.length + (words.length >> 1));
+        if (words != opened) {
+            opened = copyOf(opened, capacity);
+        }
+        if (words != openedRight) {
+            openedRight = copyOf(openedRight, capacity);
+        }
+        return copyOf(words, capacity);
+    }
+
+    private static void clearFrom(long[] words, int position) {
+        int word = position >> ADDRESS_BITS_PER_WORD;
+        if (word >= words.length) {
+            return;
+        }
+        words[word] &= (1L << position) - 1;
+        for (int i = word + 1; i < words.length; i++) {
+            words[i] = 0L;
+        }
+    }
+
+    /**
+     * Arrays.copyOf is not available before API 9
+     */
+    private static long[] copyOf(long[] words, int length) {
+        long[] copy = new long[length];
+        System.arraycopy(words, 0, copy, 0, Math.min(words.length, length));
+        return copy;
+    }
+
+    private static int wordsFor(int count) {
+        return (count + BITS_PER_WORD - 1) >> ADDRESS_BITS_PER_WORD;
+    }
+
+}
@@ -0,0 +1,300 @@
+/*
+ * Copyright (C) 2013 47 Degrees, LLC
+ * http://47deg.com
+ * hello@47deg.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.fortysevendeg.swipelistview;
+
+/**
+ * Set of positions stored as sorted, disjoint and non adjacent inclusive ranges
+ */
+class RangeSet {
+
+    private int[] starts = new int[4];
+    private int[] ends = new int[4];
+    private int size = 0;
+
+    private int covered = 0;
+
+    /**
+     * Number of ranges
+     *
+     * @return ranges
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * First position of a range
+     *
+     * @param index range index
+     * @return position
+     */
+    int getStart(int index) {
+        return starts[index];
+    }
+
+    /**
+     * Last position of a range
+     *
+     * @param index range index
+     * @return position
+     */
+    int getEnd(int index) {
+        return ends[index];
+    }
+
+    /**
+     * Number of positions in the set
+     *
+     * @return positions
+     */
+    int getCovered() {
+        return covered;
+    }
+
+    boolean contains(int position) {
+        int index = indexOf(position);
+        return index >= 0;
+    }
+
+    /**
+     * Removes every range
+     */
+    void clear() {
+        size = 0;
+        covered = 0;
+    }
+
+    /**
+     * Adds the positions from..to, merging the ranges they touch
+     *
+     * @param from first position
+     * @param to   last position
+     */
+    void add(int from, int to) {
+        if (from > to) {
+            return;
+        }
+        int first = firstEndingAtOrAfter(from - 1);
+        int last = lastStartingAtOrBefore(to + 1);
+        if (first > last) {
+            insertAt(first, from, to);
+            covered += to - from + 1;
+            return;
+        }
+        int start = Math.min(from, starts[first]);
+        int end = Math.max(to, ends[last]);
+        for (int i = first; i <= last; i++) {
+            covered -= ends[i] - starts[i] + 1;
+        }
+        starts[first] = start;
+        ends[first] = end;
+        covered += end - start + 1;
+        removeRanges(first + 1, last);
+    }
+
+    /**
+     * Removes the positions from..to, splitting the ranges they cut
+     *
+     * @param from first position
+     * @param to   last position
+     */
+    void remove(int from, int to) {
+        if (from > to) {
+            return;
+        }
+        int first = firstEndingAtOrAfter(from);
+        int last = lastStartingAtOrBefore(to);
+        if (first > last) {
+            return;
+        }
+        int headStart = starts[first];
+        int tailEnd = ends[last];
+        for (int i = first; i <= last; i++) {
+            covered -= ends[i] - starts[i] + 1;
+        }
+        removeRanges(first, last);
+        int index = first;
+        if (headStart < from) {
+            insertAt(index++, headStart, from - 1);
+            covered += from - headStart;
+        }
+        if (tailEnd > to) {
+            insertAt(index, to + 1, tailEnd);
+            covered += tailEnd - to;
+        }
+    }
+
+    /**
+     * Drops every position from position on
+     *
+     * @param position first position dropped
+     */
+    void removeFrom(int position) {
+        if (size > 0 && ends[size - 1] >= position) {
+            remove(position, ends[size - 1]);
+        }
+    }
+
+    /**
+     * Opens a gap of count positions at position, shifting the positions from there on
+     *
+     * @param position first position of the gap
+     * @param count    positions inserted
+     */
+    void insertGap(int position, int count) {
+        if (count <= 0) {
+            return;
+        }
+        int index = firstEndingAtOrAfter(position);
+        if (index < size && starts[index] < position) {
+            int end = ends[index];
+            ends[index] = position - 1;
+            insertAt(++index, position, end);
+        }
+        for (int i = index; i < size; i++) {
+            starts[i] += count;
+            ends[i] += count;
+        }
+    }
+
+    /**
+     * Drops the positions position..position + count - 1, shifting the following ones back
+     *
+     * @param position first position dropped
+     * @param count    positions dropped
+     */
+    void removeGap(int position, int count) {
+        if (count <= 0) {
+            return;
+        }
+        remove(position, position + count - 1);
+        int index = firstEndingAtOrAfter(position);
+        for (int i = index; i < size; i++) {
+            starts[i] -= count;
+            ends[i] -= count;
+        }
+        if (index > 0 && index < size && ends[index - 1] + 1 >= starts[index]) {
+            ends[index - 1] = ends[index];
+            removeRanges(index, index);
+        }
+    }
+
+    /**
+     * Find the next position in the set
+     *
+     * @param position first position to look at
+     * @return first position in the set at or after position, or -1 if there is none
+     */
+    int nextIn(int position) {
+        int index = firstEndingAtOrAfter(position);
+        if (index >= size) {
+            return -1;
+        }
+        return Math.max(position, starts[index]);
+    }
+
+    /**
+     * Find the next position out of the set
+     *
+     * @param position first position to look at
+     * @return first position at or after position that is not in the set
+     */
+    int nextOut(int position) {
+        int index = indexOf(position);
+        return index >= 0 ? ends[index] + 1 : position;
+    }
+
+    /**
+     * Index of the range that contains position
+     *
+     * @param position position
+     * @return index of the range, or the bitwise complement of the index of the first range
+     * starting after position
+     */
+    private int indexOf(int position) {
+        int low = 0;
+        int high = size - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (ends[mid] < position) {
+                low = mid + 1;
+            } else if (starts[mid] > position) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return ~low;
+    }
+
+    private int firstEndingAtOrAfter(int position) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (ends[mid] < position) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private int lastStartingAtOrBefore(int position) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (starts[mid] <= position) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low - 1;
+    }
+
+    private void insertAt(int index, int start, int end) {
+        if (size == starts.length) {
+            int[] newStarts = new int[size * 2];
+            int[] newEnds = new int[size * 2];
+            System.arraycopy(starts, 0, newStarts, 0, size);
+            System.arraycopy(ends, 0, newEnds, 0, size);
+            starts = newStarts;
+            ends = newEnds;
+        }
+        System.arraycopy(starts, index, starts, index + 1, size - index);
+        System.arraycopy(ends, index, ends, index + 1, size - index);
+        starts[index] = start;
+        ends[index] = end;
+        size++;
+    }
+
+    private void removeRanges(int first, int last) {
+        if (first > last) {
+            return;
+        }
+        int removed = last - first + 1;
+        System.arraycopy(starts, last + 1, starts, first, size - last - 1);
+        System.arraycopy(ends, last + 1, ends, first, size - last - 1);
+        size -= removed;
+    }
+
+}
@@ -0,0 +1,114 @@
+/*
+ * Copyright (C) 2013 47 Degrees, LLC
+ * http://47deg.com
+ * hello@47deg.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.fortysevendeg.swipelistview;
+
+/**
+ * Default velocity estimator. Keeps the last positions in a fixed ring of primitive arrays and
+ * fits a line, by least squares, to the ones in the last 100 milliseconds
+ */
+public class RingBufferVelocityEstimator implements SwipeVelocityEstimator {
+
+    private static final int CAPACITY = 20;
+
+    private static final long HORIZON = 100;
+
+    private final long[] times = new long[CAPACITY];
+    private final float[] xs = new float[CAPACITY];
+    private final float[] ys = new float[CAPACITY];
+    private int head = 0;
+    private int size = 0;
+
+    private float xVelocity;
+    private float yVelocity;
+
+    @Override
+    public void clear() {
+        head = 0;
+        size = 0;
+        xVelocity = 0;
+        yVelocity = 0;
+    }
+
+    @Override
+    public void addMovement(long eventTime, float x, float y) {
+        times[head] = eventTime;
+        xs[head] = x;
+        ys[head] = y;
+        head = (head + 1) % CAPACITY;
+        if (size < CAPACITY) {
+            size++;
+        }
+    }
+
+    @Override
+    public void computeVelocity(int units) {
+        xVelocity = 0;
+        yVelocity = 0;
+        if (size < 2) {
+            return;
+        }
+        int newest = (head + CAPACITY - 1) % CAPACITY;
+        long newestTime = times[newest];
+        int count = 0;
+        double sumT = 0;
+        double sumX = 0;
+        double sumY = 0;
+        for (int i = 0; i < size; i++) {
+            int index = (newest + CAPACITY - i) % CAPACITY;
+            long age = newestTime - times[index];
+            if (age > HORIZON) {
+                break;
+            }
+            sumT -= age;
+            sumX += xs[index];
+            sumY += ys[index];
+            count++;
+        }
+        if (count < 2) {
+            return;
+        }
+        double meanT = sumT / count;
+        double meanX = sumX / count;
+        double meanY = sumY / count;
+        double varT = 0;
+        double covX = 0;
+        double covY = 0;
+        for (int i = 0; i < count; i++) {
+            int index = (newest + CAPACITY - i) % CAPACITY;
+            double t = times[index] - newestTime - meanT;
+            varT += t * t;
+            covX += t * (xs[index] - meanX);
+            covY += t * (ys[index] - meanY);
+        }
+        if (varT > 0) {
+            xVelocity = (float) (covX / varT * units);
+            yVelocity = (float) (covY / varT * units);
+        }
+    }
+
+    @Override
+    public float getXVelocity() {
+        return xVelocity;
+    }
+
+    @Override
+    public float getYVelocity() {
+        return yVelocity;
+    }
+
+}
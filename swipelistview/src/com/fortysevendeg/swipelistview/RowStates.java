@@ -0,0 +1,207 @@
+/*
+ * Copyright (C) 2013 47 Degrees, LLC
+ * http://47deg.com
+ * hello@47deg.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.fortysevendeg.swipelistview;
+
+import android.widget.ListAdapter;
+
+/**
+ * Opened and checked state of the rows of the SwipeListView. Callers always address rows by
+ * list position, implementations decide how the state is keyed
+ */
+abstract class RowStates {
+
+    /**
+     * Number of rows currently tracked
+     *
+     * @return rows
+     */
+    abstract int getCount();
+
+    /**
+     * Called when the adapter size changes
+     *
+     * @param count adapter size
+     */
+    abstract void setCount(int count);
+
+    /**
+     * Get if item is opened
+     *
+     * @param position position in list
+     * @return true if opened
+     */
+    abstract boolean isOpened(int position);
+
+    /**
+     * Get if item was opened toward the right
+     *
+     * @param position position in list
+     * @return true if opened toward the right
+     */
+    abstract boolean isOpenedRight(int position);
+
+    /**
+     * Get if item is checked
+     *
+     * @param position position in list
+     * @return true if checked
+     */
+    abstract boolean isChecked(int position);
+
+    /**
+     * Opens or closes a row. Closing also clears the opened toward the right flag
+     *
+     * @param position position in list
+     * @param value    true to open
+     */
+    abstract void setOpened(int position, boolean value);
+
+    abstract void setOpenedRight(int position, boolean value);
+
+    abstract void setChecked(int position, boolean value);
+
+    /**
+     * Unchecks all rows
+     */
+    abstract void clearChecked();
+
+    /**
+     * Checks or unchecks every row from..to
+     *
+     * @param from  first position
+     * @param to    last position
+     * @param value true to check
+     */
+    abstract void setCheckedRange(int from, int to, boolean value);
+
+    /**
+     * Checks all rows
+     */
+    abstract void checkAll();
+
+    /**
+     * Checks the unchecked rows and unchecks the checked ones
+     */
+    abstract void invertChecked();
+
+    /**
+     * Count checked rows. Kept up to date on every change
+     *
+     * @return checked rows
+     */
+    abstract int getCheckedCount();
+
+    /**
+     * Find the next checked row
+     *
+     * @param position first position to look at
+     * @return first checked position at or after position, or -1 if there is none
+     */
+    abstract int nextChecked(int position);
+
+    /**
+     * Find the end of a run of checked rows
+     *
+     * @param position first position to look at
+     * @return first unchecked position at or after position, or getCount() if there is none
+     */
+    abstract int nextUnchecked(int position);
+
+    /**
+     * Count opened rows. Kept up to date on every change
+     *
+     * @return opened rows
+     */
+    abstract int getOpenedCount();
+
+    /**
+     * Closes, in the store only, every opened row outside the given range. Used for rows that are
+     * not on screen, so there is no view to animate
+     *
+     * @param from first position kept
+     * @param to   last position kept
+     */
+    abstract void closeOpenedOutside(int from, int to);
+
+    /**
+     * Shifts the state of the rows from position on, after rows were inserted in the adapter
+     *
+     * @param position first position inserted
+     * @param count    rows inserted
+     */
+    abstract void insertRows(int position, int count);
+
+    /**
+     * Drops the state of removed rows and shifts the following ones back
+     *
+     * @param position first position removed
+     * @param count    rows removed
+     */
+    abstract void removeRows(int position, int count);
+
+    /**
+     * Moves the state of a row that was moved in the adapter
+     *
+     * @param from old position
+     * @param to   new position
+     */
+    void moveRow(int from, int to) {
+        if (from == to) {
+            return;
+        }
+        boolean opened = isOpened(from);
+        boolean openedRight = isOpenedRight(from);
+        boolean checked = isChecked(from);
+        removeRows(from, 1);
+        insertRows(to, 1);
+        setOpened(to, opened);
+        setOpenedRight(to, openedRight);
+        setChecked(to, checked);
+    }
+
+    /**
+     * Snapshot of the checked positions, in ascending order
+     *
+     * @return positions
+     */
+    int[] getCheckedPositions() {
+        int[] positions = new int[getCheckedCount()];
+        int index = 0;
+        for (int i = nextChecked(0); i >= 0 && index < positions.length; i = nextChecked(i + 1)) {
+            positions[index++] = i;
+        }
+        return positions;
+    }
+
+    /**
+     * Snapshot of the ids of the checked rows, in ascending position order
+     *
+     * @param adapter adapter used to resolve ids
+     * @return ids
+     */
+    long[] getCheckedIds(ListAdapter adapter) {
+        long[] ids = new long[getCheckedCount()];
+        int index = 0;
+        for (int i = nextChecked(0); i >= 0 && index < ids.length; i = nextChecked(i + 1)) {
+            ids[index++] = adapter.getItemId(i);
+        }
+        return ids;
+    }
+
+}
@@ -0,0 +1,541 @@
+/*
+ * Copyright (C) 2013 47 Degrees, LLC
+ * http://47deg.com
+ * hello@47deg.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.fortysevendeg.swipelistview;
+
+import android.widget.ListAdapter;
+
+import java.util.Arrays;
+
+/**
+ * Row state store used when the adapter has stable ids. Only rows with some flag set are stored,
+ * in a sorted array keyed by item id, so the state follows the items when the adapter inserts or
+ * removes rows and memory depends on the opened and checked rows only. The checked flag marks the
+ * rows that differ from the default, which is unchecked until everything gets selected
+ */
+class StableIdRowStates extends RowStates {
+
+    private static final int FLAG_OPENED = 1;
+    private static final int FLAG_OPENED_RIGHT = 1 << 1;
+    private static final int FLAG_CHECKED = 1 << 2;
+
+    private static final int INITIAL_CAPACITY = 8;
+
+    private ListAdapter adapter;
+
+    private long[] ids = new long[INITIAL_CAPACITY];
+    private byte[] flags = new byte[INITIAL_CAPACITY];
+    private int[] hints = new int[INITIAL_CAPACITY];
+    private int size = 0;
+
+    private int count = 0;
+
+    private int markedCount = 0;
+
+    private boolean allChecked = false;
+
+    private int openedCount = 0;
+
+    private long[] scratchIds = new long[0];
+
+    /**
+     * Constructor
+     *
+     * @param adapter adapter with stable ids
+     */
+    StableIdRowStates(ListAdapter adapter) {
+        this.adapter = adapter;
+        this.count = adapter.getCount();
+    }
+
+    /**
+     * Adapter used to resolve ids
+     *
+     * @return adapter
+     */
+    ListAdapter getAdapter() {
+        return adapter;
+    }
+
+    @Override
+    int getCount() {
+        return count;
+    }
+
+    /**
+     * Called on every change notification: the stored ids are checked against the adapter, so
+     * the ids of replaced items are dropped even if the count did not change. Rows added at the
+     * end after a select all are not selected. The select all ends when there are no rows left
+     */
+    @Override
+    void setCount(int count) {
+        int oldCount = this.count;
+        this.count = count;
+        verifyHints();
+        if (count == 0) {
+            clearChecked();
+        } else if (allChecked && count > oldCount) {
+            setCheckedRange(oldCount, count - 1, false);
+        }
+    }
+
+    @Override
+    boolean isOpened(int position) {
+        return (getFlags(position) & FLAG_OPENED) != 0;
+    }
+
+    @Override
+    boolean isOpenedRight(int position) {
+        return (getFlags(position) & FLAG_OPENED_RIGHT) != 0;
+    }
+
+    @Override
+    boolean isChecked(int position) {
+        if (position < 0 || position >= count) {
+            return false;
+        }
+        return ((getFlags(position) & FLAG_CHECKED) != 0) != allChecked;
+    }
+
+    @Override
+    void setOpened(int position, boolean value) {
+        setFlag(position, FLAG_OPENED, value);
+        if (!value) {
+            setFlag(position, FLAG_OPENED_RIGHT, false);
+        }
+    }
+
+    @Override
+    void setOpenedRight(int position, boolean value) {
+        setFlag(position, FLAG_OPENED_RIGHT, value);
+    }
+
+    @Override
+    void setChecked(int position, boolean value) {
+        setFlag(position, FLAG_CHECKED, value != allChecked);
+    }
+
+    /**
+     * Ids are not ordered by position, so a range can't be stored as such: it costs one entry per
+     * row. The ids of the range are resolved and sorted once and merged into the store, which
+     * keeps a large select range at O(n log n) instead of one sorted insert per row
+     */
+    @Override
+    void setCheckedRange(int from, int to, boolean value) {
+        from = Math.max(from, 0);
+        to = Math.min(to, count - 1);
+        int rangeCount = to - from + 1;
+        if (rangeCount <= 1) {
+            if (rangeCount == 1) {
+                setFlag(from, FLAG_CHECKED, value != allChecked);
+            }
+            return;
+        }
+        if (scratchIds.length < rangeCount) {
+            scratchIds = new long[rangeCount];
+        }
+        for (int i = 0; i < rangeCount; i++) {
+            scratchIds[i] = adapter.getItemId(from + i);
+        }
+        Arrays.sort(scratchIds, 0, rangeCount);
+        if (value != allChecked) {
+            markRange(rangeCount);
+            for (int i = from; i <= to; i++) {
+                hints[indexOf(adapter.getItemId(i))] = i;
+            }
+        } else {
+            unmarkRange(rangeCount);
+        }
+    }
+
+    /**
+     * Merges the sorted ids in scratchIds into the store with the checked flag set
+     *
+     * @param rangeCount ids in scratchIds
+     */
+    private void markRange(int rangeCount) {
+        long[] newIds = new long[Math.max(size + rangeCount, INITIAL_CAPACITY)];
+        byte[] newFlags = new byte[newIds.length];
+        int[] newHints = new int[newIds.length];
+        int merged = 0;
+        int index = 0;
+        for (int i = 0; i < rangeCount; i++) {
+            long id = scratchIds[i];
+            if (i > 0 && id == scratchIds[i - 1]) {
+                continue;
+            }
+            while (index < size && ids[index] < id) {
+                newIds[merged] = ids[index];
+                newHints[merged] = hints[index];
+                newFlags[merged++] = flags[index++];
+            }
+            int current = 0;
+            if (index < size && ids[index] == id) {
+                current = flags[index++];
+            }
+            if ((current & FLAG_CHECKED) == 0) {
+                markedCount++;
+            }
+            newIds[merged] = id;
+            newFlags[merged++] = (byte) (current | FLAG_CHECKED);
+        }
+        System.arraycopy(ids, index, newIds, merged, size - index);
+        System.arraycopy(flags, index, newFlags, merged, size - index);
+        System.arraycopy(hints, index, newHints, merged, size - index);
+        ids = newIds;
+        flags = newFlags;
+        hints = newHints;
+        size = merged + size - index;
+    }
+
+    /**
+     * Clears the checked flag of the sorted ids in scratchIds, dropping the entries left empty
+     *
+     * @param rangeCount ids in scratchIds
+     */
+    private void unmarkRange(int rangeCount) {
+        int kept = 0;
+        int range = 0;
+        for (int i = 0; i < size; i++) {
+            int value = flags[i];
+            while (range < rangeCount && scratchIds[range] < ids[i]) {
+                range++;
+            }
+            if (range < rangeCount && scratchIds[range] == ids[i] && (value & FLAG_CHECKED) != 0) {
+                value &= ~FLAG_CHECKED;
+                markedCount--;
+            }
+            if (value != 0) {
+                ids[kept] = ids[i];
+                flags[kept] = (byte) value;
+                hints[kept] = hints[i];
+                kept++;
+            }
+        }
+        size = kept;
+    }
+
+    @Override
+    void checkAll() {
+        clearChecked();
+        allChecked = true;
+    }
+
+    @Override
+    void invertChecked() {
+        allChecked = !allChecked;
+    }
+
+    @Override
+    void clearChecked() {
+        int kept = 0;
+        for (int i = 0; i < size; i++) {
+            int value = flags[i] & ~FLAG_CHECKED;
+            if (value != 0) {
+                ids[kept] = ids[i];
+                flags[kept] = (byte) value;
+                hints[kept] = hints[i];
+                kept++;
+            }
+        }
+        size = kept;
+        markedCount = 0;
+        allChecked = false;
+    }
+
+    @Override
+    int getOpenedCount() {
+        return openedCount;
+    }
+
+    /**
+     * The ids of the kept range are sorted once and looked up by binary search, so the cost is
+     * O((kept + stored) log kept)
+     */
+    @Override
+    void closeOpenedOutside(int from, int to) {
+        if (openedCount == 0) {
+            return;
+        }
+        from = Math.max(from, 0);
+        to = Math.min(to, count - 1);
+        int keptCount = Math.max(to - from + 1, 0);
+        if (scratchIds.length < keptCount) {
+            scratchIds = new long[keptCount];
+        }
+        for (int i = 0; i < keptCount; i++) {
+            scratchIds[i] = adapter.getItemId(from + i);
+        }
+        Arrays.sort(scratchIds, 0, keptCount);
+        int kept = 0;
+        for (int i = 0; i < size; i++) {
+            int value = flags[i];
+            if ((value & FLAG_OPENED) != 0 && Arrays.binarySearch(scratchIds, 0, keptCount, ids[i]) < 0) {
+                value &= ~(FLAG_OPENED | FLAG_OPENED_RIGHT);
+                openedCount--;
+            }
+            if (value != 0) {
+                ids[kept] = ids[i];
+                flags[kept] = (byte) value;
+                hints[kept] = hints[i];
+                kept++;
+            }
+        }
+        size = kept;
+    }
+
+    /**
+     * Ids follow their items, only their position hints move. Rows inserted after a select all
+     * are not selected
+     */
+    @Override
+    void insertRows(int position, int count) {
+        if (count <= 0) {
+            return;
+        }
+        this.count += count;
+        for (int i = 0; i < size; i++) {
+            if (hints[i] >= position) {
+                hints[i] += count;
+            }
+        }
+        if (allChecked) {
+            setCheckedRange(position, position + count - 1, false);
+        }
+    }
+
+    /**
+     * Drops the ids last seen in the removed range and moves the hints of the following ones back.
+     * The other hints are checked against the adapter on the next setCount
+     */
+    @Override
+    void removeRows(int position, int count) {
+        if (count <= 0) {
+            return;
+        }
+        this.count = Math.max(this.count - count, 0);
+        int kept = 0;
+        for (int i = 0; i < size; i++) {
+            int hint = hints[i];
+            if (hint >= position && hint < position + count) {
+                drop(flags[i]);
+                continue;
+            }
+            ids[kept] = ids[i];
+            flags[kept] = flags[i];
+            hints[kept] = hint >= position + count ? hint - count : hint;
+            kept++;
+        }
+        size = kept;
+    }
+
+    @Override
+    void moveRow(int from, int to) {
+        for (int i = 0; i < size; i++) {
+            int hint = hints[i];
+            if (hint == from) {
+                hints[i] = to;
+            } else if (from < to && hint > from && hint <= to) {
+                hints[i] = hint - 1;
+            } else if (from > to && hint >= to && hint < from) {
+                hints[i] = hint + 1;
+            }
+        }
+    }
+
+    /**
+     * Checks every stored id at its hinted position. Only when one is not there the adapter is
+     * walked to find the ids again, dropping the ones that are gone
+     */
+    private void verifyHints() {
+        int i = 0;
+        while (i < size && hints[i] < count && adapter.getItemId(hints[i]) == ids[i]) {
+            i++;
+        }
+        if (i == size) {
+            return;
+        }
+        for (i = 0; i < size; i++) {
+            hints[i] = -1;
+        }
+        for (int position = 0; position < count; position++) {
+            int index = indexOf(adapter.getItemId(position));
+            if (index >= 0) {
+                hints[index] = position;
+            }
+        }
+        int kept = 0;
+        for (i = 0; i < size; i++) {
+            if (hints[i] < 0) {
+                drop(flags[i]);
+                continue;
+            }
+            ids[kept] = ids[i];
+            flags[kept] = flags[i];
+            hints[kept] = hints[i];
+            kept++;
+        }
+        size = kept;
+    }
+
+    /**
+     * Updates the counters for a dropped entry
+     *
+     * @param value flags of the entry
+     */
+    private void drop(int value) {
+        if ((value & FLAG_CHECKED) != 0) {
+            markedCount--;
+        }
+        if ((value & FLAG_OPENED) != 0) {
+            openedCount--;
+        }
+    }
+
+    @Override
+    int getCheckedCount() {
+        return allChecked ? Math.max(count - markedCount, 0) : markedCount;
+    }
+
+    /**
+     * Positions are not stored in this mode, so the adapter is walked from position until a
+     * checked id shows up
+     */
+    @Override
+    int nextChecked(int position) {
+        if (getCheckedCount() == 0) {
+            return -1;
+        }
+        for (int i = Math.max(position, 0); i < count; i++) {
+            if (isChecked(i)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    int nextUnchecked(int position) {
+        int i = Math.max(position, 0);
+        while (i < count && isChecked(i)) {
+            i++;
+        }
+        return i;
+    }
+
+    /**
+     * Ids are read straight from the store, in ascending id order, unless everything was selected
+     */
+    @Override
+    long[] getCheckedIds(ListAdapter adapter) {
+        if (allChecked) {
+            return super.getCheckedIds(adapter);
+        }
+        long[] checkedIds = new long[markedCount];
+        int index = 0;
+        for (int i = 0; i < size && index < checkedIds.length; i++) {
+            if ((flags[i] & FLAG_CHECKED) != 0) {
+                checkedIds[index++] = ids[i];
+            }
+        }
+        return checkedIds;
+    }
+
+    private int getFlags(int position) {
+        if (size == 0 || position < 0 || position >= count) {
+            return 0;
+        }
+        int index = indexOf(adapter.getItemId(position));
+        if (index < 0) {
+            return 0;
+        }
+        hints[index] = position;
+        return flags[index];
+    }
+
+    private void setFlag(int position, int flag, boolean value) {
+        if (position < 0 || position >= count) {
+            return;
+        }
+        long id = adapter.getItemId(position);
+        int index = indexOf(id);
+        int current = index >= 0 ? flags[index] : 0;
+        if (flag == FLAG_CHECKED && value != ((current & FLAG_CHECKED) != 0)) {
+            markedCount += value ? 1 : -1;
+        } else if (flag == FLAG_OPENED && value != ((current & FLAG_OPENED) != 0)) {
+            openedCount += value ? 1 : -1;
+        }
+        if (index >= 0) {
+            int updated = value ? flags[index] | flag : flags[index] & ~flag;
+            if (updated != 0) {
+                flags[index] = (byte) updated;
+                hints[index] = position;
+            } else {
+                size--;
+                System.arraycopy(ids, index + 1, ids, index, size - index);
+                System.arraycopy(flags, index + 1, flags, index, size - index);
+                System.arraycopy(hints, index + 1, hints, index, size - index);
+            }
+        } else if (value) {
+            index = ~index;
+            if (size == ids.length) {
+                int capacity = size * 2;
+                long[] newIds = new long[capacity];
+                byte[] newFlags = new byte[capacity];
+                int[] newHints = new int[capacity];
+                System.arraycopy(ids, 0, newIds, 0, size);
+                System.arraycopy(flags, 0, newFlags, 0, size);
+                System.arraycopy(hints, 0, newHints, 0, size);
+                ids = newIds;
+                flags = newFlags;
+                hints = newHints;
+            }
+            System.arraycopy(ids, index, ids, index + 1, size - index);
+            System.arraycopy(flags, index, flags, index + 1, size - index);
+            System.arraycopy(hints, index, hints, index + 1, size - index);
+            ids[index] = id;
+            flags[index] = (byte) flag;
+            hints[index] = position;
+            size++;
+        }
+    }
+
+    /**
+     * Binary search of the id
+     *
+     * @param id item id
+     * @return index of the id, or the bitwise complement of its insertion point
+     */
+    private int indexOf(long id) {
+        int low = 0;
+        int high = size - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            long midId = ids[mid];
+            if (midId < id) {
+                low = mid + 1;
+            } else if (midId > id) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return ~low;
+    }
+
+}
@@ -0,0 +1,163 @@
+/*
+ * Copyright (C) 2013 47 Degrees, LLC
+ * http://47deg.com
+ * hello@47deg.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.fortysevendeg.swipelistview;
+
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.AdapterView;
+import android.widget.BaseAdapter;
+import android.widget.ListView;
+
+/**
+ * Base adapter for SwipeListView rows. It creates the holder of every new row, keeping it in the
+ * row tag, and calls SwipeListView.recycle on every bind, so recycled rows come back with their
+ * choice background and open or closed without animating. Action views registered with
+ * setActionView share a single click listener, so binding allocates nothing
+ *
+ * @param <H> row holder
+ */
+public abstract class SwipeAdapter<H> extends BaseAdapter {
+
+    private LayoutInflater inflater;
+
+    private final View.OnClickListener actionClickListener = new View.OnClickListener() {
+        @Override
+        public void onClick(View v) {
+            int position = positionOf(v);
+            if (position != ListView.INVALID_POSITION) {
+                onActionClick(v, position);
+            }
+        }
+    };
+
+    /**
+     * Inflates a new row
+     *
+     * @param inflater LayoutInflater
+     * @param position position in list
+     * @param parent   list
+     * @return row view
+     */
+    protected abstract View newView(LayoutInflater inflater, int position, ViewGroup parent);
+
+    /**
+     * Creates the holder of a new row. Register its action views here with setActionView, or in
+     * onBindBackView when the back view is a ViewStub
+     *
+     * @param row row view
+     * @return holder
+     */
+    protected abstract H newHolder(View row);
+
+    /**
+     * Binds the data of a position to a row
+     *
+     * @param holder   row holder
+     * @param position position in list
+     */
+    protected abstract void bindView(H holder, int position);
+
+    /**
+     * Binds a back view declared as a ViewStub, each time it is inflated or taken from the pool
+     * for a row, and when an open row is bound to another position. Its action views don't exist
+     * in newHolder, so register them here with setActionView
+     *
+     * @param holder   row holder
+     * @param backView back view
+     * @param position position in the adapter, header rows not counted
+     */
+    protected void onBindBackView(H holder, View backView, int position) {
+    }
+
+    /**
+     * Called when an action view registered with setActionView is clicked
+     *
+     * @param actionView view clicked
+     * @param position   position of its row in the adapter, header rows not counted
+     */
+    protected void onActionClick(View actionView, int position) {
+    }
+
+    /**
+     * Registers an action view of a row, clicks are reported to onActionClick with the row position
+     *
+     * @param actionView view, usually in the back view
+     */
+    protected void setActionView(View actionView) {
+        actionView.setOnClickListener(actionClickListener);
+    }
+
+    /**
+     * @see android.widget.Adapter#getView(int, android.view.View, android.view.ViewGroup)
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public View getView(int position, View convertView, ViewGroup parent) {
+        View row = convertView;
+        if (row == null) {
+            if (inflater == null) {
+                inflater = LayoutInflater.from(parent.getContext());
+            }
+            row = newView(inflater, position, parent);
+            row.setTag(newHolder(row));
+        }
+        if (parent instanceof SwipeListView) {
+            SwipeListView list = (SwipeListView) parent;
+            list.recycle(row, position + list.getHeaderViewsCount());
+        }
+        bindView((H) row.getTag(), position);
+        return row;
+    }
+
+    /**
+     * Called by SwipeListView when a lazy back view needs binding
+     *
+     * @param row      row view
+     * @param backView back view
+     * @param position position in the adapter
+     */
+    @SuppressWarnings("unchecked")
+    final void bindBackView(View row, View backView, int position) {
+        onBindBackView((H) row.getTag(), backView, position);
+    }
+
+    /**
+     * Position in the adapter of the row a view belongs to, header rows not counted
+     *
+     * @param view view inside a row
+     * @return position, or INVALID_POSITION if the row is not an item of a list
+     */
+    private int positionOf(View view) {
+        View row = view;
+        while (row.getParent() instanceof View && !(row.getParent() instanceof AdapterView)) {
+            row = (View) row.getParent();
+        }
+        if (!(row.getParent() instanceof AdapterView)) {
+            return ListView.INVALID_POSITION;
+        }
+        AdapterView<?> list = (AdapterView<?>) row.getParent();
+        int position = list.getPositionForView(row);
+        if (position != ListView.INVALID_POSITION && list instanceof ListView) {
+            position -= ((ListView) list).getHeaderViewsCount();
+        }
+        return position >= 0 && position < getCount() ? position : ListView.INVALID_POSITION;
+    }
+
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright (C) 2013 47 Degrees, LLC
+ * http://47deg.com
+ * hello@47deg.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.fortysevendeg.swipelistview;
+
+import android.os.Build;
+import android.view.View;
+import android.view.animation.Interpolator;
+
+/**
+ * Animation backend of the list. Platform animators are used directly where View.animate() is
+ * available, NineOldAndroids only on older releases
+ */
+abstract class SwipeAnimator {
+
+    /**
+     * Receives the end of a view animation. The backend keeps its own listener in the instance,
+     * so pooled listeners do not allocate per animation
+     */
+    static abstract class EndListener {
+        Object backendListener;
+
+        abstract void onAnimationEnd();
+    }
+
+    /**
+     * Receives the progress of a fraction animation
+     */
+    interface FractionListener {
+        void onFraction(float fraction);
+
+        void onEnd();
+    }
+
+    /**
+     * Running fraction animation
+     */
+    interface Running {
+        void cancel();
+    }
+
+    /**
+     * Backend for this release
+     *
+     * @return platform backend on API 12 and later, NineOldAndroids before
+     */
+    static SwipeAnimator create() {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.HONEYCOMB_MR1) {
+            return new NativeSwipeAnimator();
+        }
+        return new LegacySwipeAnimator();
+    }
+
+    abstract float getTranslationX(View view);
+
+    abstract void setTranslationX(View view, float value);
+
+    abstract void setTranslationY(View view, float value);
+
+    abstract float getAlpha(View view);
+
+    abstract void setAlpha(View view, float value);
+
+    /**
+     * Animates the translation of a view, and its alpha
+     *
+     * @param view         view
+     * @param translationX final translation
+     * @param alpha        final alpha, or NaN to leave it
+     * @param duration     milliseconds
+     * @param interpolator interpolator, always set as the view animator keeps the last one
+     * @param listener     end listener
+     */
+    abstract void animate(View view, float translationX, float alpha, long duration, Interpolator interpolator, EndListener listener);
+
+    /**
+     * Animates a fraction from 0 to 1
+     *
+     * @param duration milliseconds
+     * @param listener progress listener
+     * @return running animation
+     */
+    abstract Running animateFraction(long duration, FractionListener listener);
+
+}
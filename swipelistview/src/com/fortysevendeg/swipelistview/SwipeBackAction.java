@@ -0,0 +1,77 @@
+/*
+ * Copyright (C) 2013 47 Degrees, LLC
+ * http://47deg.com
+ * hello@47deg.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.fortysevendeg.swipelistview;
+
+import android.graphics.drawable.Drawable;
+
+/**
+ * Action drawn by the list behind the front view, instead of a back view hierarchy: a background
+ * color with an icon and a label centered on it
+ */
+public class SwipeBackAction {
+
+    private final int id;
+    private final Drawable icon;
+    private final CharSequence label;
+    private final int backgroundColor;
+
+    /**
+     * Constructor
+     *
+     * @param id              id reported to onClickBackAction
+     * @param icon            icon, drawn at its intrinsic size, or null
+     * @param label           label, or null
+     * @param backgroundColor ARGB background color
+     */
+    public SwipeBackAction(int id, Drawable icon, CharSequence label, int backgroundColor) {
+        this.id = id;
+        this.icon = icon;
+        this.label = label;
+        this.backgroundColor = backgroundColor;
+    }
+
+    /**
+     * @return id reported to onClickBackAction
+     */
+    public int getId() {
+        return id;
+    }
+
+    /**
+     * @return icon, or null
+     */
+    public Drawable getIcon() {
+        return icon;
+    }
+
+    /**
+     * @return label, or null
+     */
+    public CharSequence getLabel() {
+        return label;
+    }
+
+    /**
+     * @return ARGB background color
+     */
+    public int getBackgroundColor() {
+        return backgroundColor;
+    }
+
+}
@@ -21,6 +21,7 @@ package com.fortysevendeg.swipelistview;
 import android.content.Context;
 import android.content.res.TypedArray;
 import android.database.DataSetObserver;
+import android.graphics.Canvas;
 import android.support.v4.view.MotionEventCompat;
 import android.support.v4.view.ViewConfigurationCompat;
 import android.util.AttributeSet;
@@ -29,6 +30,7 @@ import android.view.View;
 import android.view.ViewConfiguration;
 import android.widget.ListAdapter;
 import android.widget.ListView;
+import android.widget.WrapperListAdapter;
 
 import java.util.List;
 
@@ -82,6 +84,43 @@ public class SwipeListView extends ListView {
      */
     public final static int SWIPE_ACTION_NONE = 3;
 
+    /**
+     * Dismissed rows shrink their height, laying out the list on every frame
+     */
+    public final static int SWIPE_DISMISS_COLLAPSE_LAYOUT = 0;
+
+    /**
+     * Dismissed rows keep their height and the rows below slide up with translationY. The list is
+     * laid out once, when the dismiss is committed
+     */
+    public final static int SWIPE_DISMISS_COLLAPSE_TRANSLATION = 1;
+
+    /**
+     * Released rows animate to their final position in the animation time
+     */
+    public final static int SWIPE_ANIMATION_FIXED = 0;
+
+    /**
+     * Released rows keep the release velocity and decelerate, never slower than the animation time
+     */
+    public final static int SWIPE_ANIMATION_FLING = 1;
+
+    /**
+     * Moving rows are drawn as usual
+     */
+    public final static int SWIPE_RENDER_NONE = 0;
+
+    /**
+     * Moving rows are rendered into a hardware layer while they are dragged or animated
+     */
+    public final static int SWIPE_RENDER_HARDWARE_LAYER = 1;
+
+    /**
+     * Moving rows are drawn from a bitmap snapshot while they are dragged or animated, for
+     * software rendered windows
+     */
+    public final static int SWIPE_RENDER_SNAPSHOT = 2;
+
     /**
      * Default ids for front view
      */
@@ -126,6 +165,22 @@ public class SwipeListView extends ListView {
      */
     private SwipeListViewTouchListener touchListener;
 
+    /**
+     * Adapter the data set observer is registered on
+     */
+    private ListAdapter observedAdapter;
+
+    /**
+     * Single observer, moved from adapter to adapter
+     */
+    private final DataSetObserver dataSetObserver = new DataSetObserver() {
+        @Override
+        public void onChanged() {
+            super.onChanged();
+            onListChanged();
+            touchListener.resetItems();
+        }
+    };
 
     /**
      * If you create a View programmatically you need send back and front identifier
@@ -172,6 +227,10 @@ public class SwipeListView extends ListView {
         float swipeOffsetRight = 0;
         int swipeDrawableChecked = 0;
         int swipeDrawableUnchecked = 0;
+        int swipeDismissCollapse = SWIPE_DISMISS_COLLAPSE_LAYOUT;
+        boolean swipeFrameSync = false;
+        int swipeAnimationMode = SWIPE_ANIMATION_FIXED;
+        int swipeRenderStrategy = SWIPE_RENDER_NONE;
 
         int swipeActionLeft = SWIPE_ACTION_REVEAL;
         int swipeActionRight = SWIPE_ACTION_REVEAL;
@@ -190,6 +249,10 @@ public class SwipeListView extends ListView {
             swipeDrawableUnchecked = styled.getResourceId(R.styleable.SwipeListView_swipeDrawableUnchecked, 0);
             swipeFrontView = styled.getResourceId(R.styleable.SwipeListView_swipeFrontView, 0);
             swipeBackView = styled.getResourceId(R.styleable.SwipeListView_swipeBackView, 0);
+            swipeDismissCollapse = styled.getInt(R.styleable.SwipeListView_swipeDismissCollapse, SWIPE_DISMISS_COLLAPSE_LAYOUT);
+            swipeFrameSync = styled.getBoolean(R.styleable.SwipeListView_swipeFrameSync, false);
+            swipeAnimationMode = styled.getInt(R.styleable.SwipeListView_swipeAnimationMode, SWIPE_ANIMATION_FIXED);
+            swipeRenderStrategy = styled.getInt(R.styleable.SwipeListView_swipeRenderStrategy, SWIPE_RENDER_NONE);
         }
 
         if (swipeFrontView == 0 || swipeBackView == 0) {
@@ -216,18 +279,34 @@ public class SwipeListView extends ListView {
         touchListener.setSwipeOpenOnLongPress(swipeOpenOnLongPress);
         touchListener.setSwipeDrawableChecked(swipeDrawableChecked);
         touchListener.setSwipeDrawableUnchecked(swipeDrawableUnchecked);
+        touchListener.setDismissCollapse(swipeDismissCollapse);
+        touchListener.setFrameSync(swipeFrameSync);
+        touchListener.setAnimationMode(swipeAnimationMode);
+        touchListener.setRenderStrategy(swipeRenderStrategy);
         setOnTouchListener(touchListener);
         setOnScrollListener(touchListener.makeScrollListener());
     }
 
     /**
-     * Recycle cell. This method should be called from getView in Adapter when use SWIPE_ACTION_CHOICE
+     * Recycle cell. This method should be called from getView in Adapter, SwipeAdapter does it. It
+     * restores the choice background and puts the row open or closed without animating
      *
      * @param convertView parent view
-     * @param position    position in list
+     * @param position    position in list, header rows counted: add getHeaderViewsCount to the
+     *                    position getView receives
      */
     public void recycle(View convertView, int position) {
-        touchListener.reloadChoiceStateInView(convertView.findViewById(swipeFrontView), position);
+        touchListener.recycle(convertView, position);
+    }
+
+    /**
+     * Views of a row, looked up once and kept with the row, along with its running animation
+     *
+     * @param row row view, as returned by the adapter
+     * @return holder of the row
+     */
+    public SwipeViewHolder getSwipeViewHolder(View row) {
+        return touchListener.holderOf(row);
     }
 
     /**
@@ -249,6 +328,37 @@ public class SwipeListView extends ListView {
         return touchListener.getPositionsSelected();
     }
 
+    /**
+     * Get positions selected, without boxing
+     *
+     * @return positions in ascending order
+     */
+    public int[] getSelectedPositions() {
+        return touchListener.getSelectedPositions();
+    }
+
+    /**
+     * Get ids of the items selected
+     *
+     * @return ids
+     */
+    public long[] getSelectedIds() {
+        return touchListener.getSelectedIds();
+    }
+
+    /**
+     * Iterates over the selected positions without allocating:
+     * <pre>
+     * for (int p = list.nextSelectedPosition(0); p >= 0; p = list.nextSelectedPosition(p + 1)) { ... }
+     * </pre>
+     *
+     * @param position first position to look at
+     * @return first selected position at or after position, or -1 if there is none
+     */
+    public int nextSelectedPosition(int position) {
+        return touchListener.nextSelectedPosition(position);
+    }
+
     /**
      * Count selected
      *
@@ -265,21 +375,101 @@ public class SwipeListView extends ListView {
         touchListener.unselectedChoiceStates();
     }
 
+    /**
+     * Select items from..to. Listeners get a single onChoiceRangeChanged
+     *
+     * @param from first position
+     * @param to   last position
+     */
+    public void selectRange(int from, int to) {
+        touchListener.setChoiceStates(from, to, true);
+    }
+
+    /**
+     * Select all items. Listeners get a single onChoiceRangeChanged
+     */
+    public void selectAll() {
+        touchListener.selectAll();
+    }
+
+    /**
+     * Invert the selection. Listeners get a single onChoiceRangeChanged
+     */
+    public void invertSelection() {
+        touchListener.invertSelection();
+    }
+
+    /**
+     * AbsListView calls it whenever the children are scrolled or laid out, so back views of rows
+     * scrolled into view are hidden if they are closed
+     *
+     * @see android.view.View#onScrollChanged(int, int, int, int)
+     */
+    @Override
+    protected void onScrollChanged(int l, int t, int oldl, int oldt) {
+        super.onScrollChanged(l, t, oldl, oldt);
+        touchListener.updateBackViews();
+    }
+
+    /**
+     * @see android.widget.ListView#dispatchDraw(android.graphics.Canvas)
+     */
+    @Override
+    protected void dispatchDraw(Canvas canvas) {
+        touchListener.drawBackActions(canvas);
+        super.dispatchDraw(canvas);
+    }
+
     /**
      * @see android.widget.ListView#setAdapter(android.widget.ListAdapter)
      */
     @Override
     public void setAdapter(ListAdapter adapter) {
+        touchListener.cancelDismisses();
+        if (observedAdapter != null) {
+            observedAdapter.unregisterDataSetObserver(dataSetObserver);
+        }
         super.setAdapter(adapter);
         touchListener.resetItems();
-        adapter.registerDataSetObserver(new DataSetObserver() {
-            @Override
-            public void onChanged() {
-                super.onChanged();
-                onListChanged();
-                touchListener.resetItems();
-            }
-        });
+        observedAdapter = adapter;
+        if (adapter != null) {
+            adapter.registerDataSetObserver(dataSetObserver);
+        }
+    }
+
+    /**
+     * Shifts the swipe and choice state after items were inserted in the adapter. Call it before
+     * notifyDataSetChanged, so only the rows after position are touched instead of guessing the
+     * state again. Not needed when the adapter has stable ids
+     *
+     * @param position first position inserted
+     * @param count    items inserted
+     */
+    public void notifyItemsInserted(int position, int count) {
+        touchListener.onItemsInserted(position, count);
+    }
+
+    /**
+     * Drops the swipe and choice state of items removed from the adapter and shifts the following
+     * ones. Call it before notifyDataSetChanged. Dismissed items are shifted by the list itself,
+     * once onDismiss returns with them removed from the adapter
+     *
+     * @param position first position removed
+     * @param count    items removed
+     */
+    public void notifyItemsRemoved(int position, int count) {
+        touchListener.onItemsRemoved(position, count);
+    }
+
+    /**
+     * Moves the swipe and choice state of an item moved in the adapter. Call it before
+     * notifyDataSetChanged
+     *
+     * @param from old position
+     * @param to   new position
+     */
+    public void notifyItemMoved(int from, int to) {
+        touchListener.onItemMoved(from, to);
     }
 
     /**
@@ -288,38 +478,14 @@ public class SwipeListView extends ListView {
      * @param position Position that you want open
      */
     public void dismiss(int position) {
-        int height = touchListener.dismiss(position);
-        if (height > 0) {
-            touchListener.handlerPendingDismisses(height);
-        } else {
-            int[] dismissPositions = new int[1];
-            dismissPositions[0] = position;
-            onDismiss(dismissPositions);
-            touchListener.resetPendingDismisses();
-        }
+        touchListener.dismiss(position);
     }
 
     /**
-     * Dismiss items selected
+     * Dismiss items selected. Listeners are notified with onDismissRanges
      */
     public void dismissSelected() {
-        List<Integer> list = touchListener.getPositionsSelected();
-        int[] dismissPositions = new int[list.size()];
-        int height = 0;
-        for (int i = 0; i < list.size(); i++) {
-            int position = list.get(i);
-            dismissPositions[i] = position;
-            int auxHeight = touchListener.dismiss(position);
-            if (auxHeight > 0) {
-                height = auxHeight;
-            }
-        }
-        if (height > 0) {
-            touchListener.handlerPendingDismisses(height);
-        } else {
-            onDismiss(dismissPositions);
-            touchListener.resetPendingDismisses();
-        }
+        touchListener.dismissSelected();
         touchListener.returnOldActions();
     }
 
@@ -352,6 +518,18 @@ public class SwipeListView extends ListView {
         }
     }
 
+    /**
+     * Notifies onDismissRanges
+     *
+     * @param reverseSortedStarts First position of every range dismissed, in descending order
+     * @param counts              Items in every range
+     */
+    protected void onDismissRanges(int[] reverseSortedStarts, int[] counts) {
+        if (swipeListViewListener != null) {
+            swipeListViewListener.onDismissRanges(reverseSortedStarts, counts);
+        }
+    }
+
     /**
      * Start open item
      *
@@ -399,6 +577,52 @@ public class SwipeListView extends ListView {
         }
     }
 
+    /**
+     * Holds the row states while the dismiss listener is notified
+     */
+    void beginDismissCommit() {
+        touchListener.beginDismissCommit();
+    }
+
+    /**
+     * Shifts the row states past the dismissed rows, if the dismiss listener removed them
+     *
+     * @param reverseSortedStarts first position of each dismissed range, in descending order
+     * @param counts              rows in each range
+     */
+    void endDismissCommit(int[] reverseSortedStarts, int[] counts) {
+        touchListener.endDismissCommit(reverseSortedStarts, counts);
+    }
+
+    /**
+     * Has a SwipeAdapter, wrapped or not, bind a back view that was inflated from a stub
+     *
+     * @param row      row view
+     * @param backView back view
+     * @param position position in list
+     */
+    void onBindBackView(View row, View backView, int position) {
+        ListAdapter adapter = getAdapter();
+        if (adapter instanceof WrapperListAdapter) {
+            adapter = ((WrapperListAdapter) adapter).getWrappedAdapter();
+        }
+        if (adapter instanceof SwipeAdapter) {
+            ((SwipeAdapter<?>) adapter).bindBackView(row, backView, position - getHeaderViewsCount());
+        }
+    }
+
+    /**
+     * Notifies onClickBackAction
+     *
+     * @param position item clicked
+     * @param actionId id of the action clicked
+     */
+    protected void onClickBackAction(int position, int actionId) {
+        if (swipeListViewListener != null && position != ListView.INVALID_POSITION) {
+            swipeListViewListener.onClickBackAction(position, actionId);
+        }
+    }
+
     /**
      * Notifies onOpened
      *
@@ -435,6 +659,18 @@ public class SwipeListView extends ListView {
         }
     }
 
+    /**
+     * Notifies onChoiceRangeChanged
+     *
+     * @param from first position changed
+     * @param to   last position changed
+     */
+    protected void onChoiceRangeChanged(int from, int to) {
+        if (swipeListViewListener != null) {
+            swipeListViewListener.onChoiceRangeChanged(from, to);
+        }
+    }
+
     /**
      * User start choice items
      */
@@ -508,6 +744,104 @@ public class SwipeListView extends ListView {
         this.swipeListViewListener = swipeListViewListener;
     }
 
+    /**
+     * Sets how rows are rendered while they are dragged or animated
+     *
+     * @param renderStrategy SWIPE_RENDER_NONE, SWIPE_RENDER_HARDWARE_LAYER or SWIPE_RENDER_SNAPSHOT
+     */
+    public void setSwipeRenderStrategy(int renderStrategy) {
+        touchListener.setRenderStrategy(renderStrategy);
+    }
+
+    /**
+     * Sets the actions drawn behind the front view when swiping to the left, from the right edge
+     * of the row. Rows may then leave out the back view, and should not have a background of their
+     * own
+     *
+     * @param actions Actions, none to stop drawing them
+     */
+    public void setSwipeBackActionsLeft(SwipeBackAction... actions) {
+        touchListener.setBackActionsLeft(actions);
+    }
+
+    /**
+     * Sets the actions drawn behind the front view when swiping to the right, from the left edge
+     * of the row
+     *
+     * @param actions Actions, none to stop drawing them
+     */
+    public void setSwipeBackActionsRight(SwipeBackAction... actions) {
+        touchListener.setBackActionsRight(actions);
+    }
+
+    /**
+     * Sets how released rows animate
+     *
+     * @param animationMode SWIPE_ANIMATION_FIXED or SWIPE_ANIMATION_FLING
+     */
+    public void setSwipeAnimationMode(int animationMode) {
+        touchListener.setAnimationMode(animationMode);
+    }
+
+    /**
+     * Applies the drag and calls onMove at most once per display frame, with the latest touch
+     * position, instead of once per touch event. Needs API 16, older releases keep moving on
+     * every event
+     *
+     * @param frameSync true to sync with the display frames
+     */
+    public void setSwipeFrameSync(boolean frameSync) {
+        touchListener.setFrameSync(frameSync);
+    }
+
+    /**
+     * Sets the velocity estimator used to tell swipes from scrolls and to detect flings
+     *
+     * @param velocityEstimator Estimator, or null for the default RingBufferVelocityEstimator
+     */
+    public void setVelocityEstimator(SwipeVelocityEstimator velocityEstimator) {
+        touchListener.setVelocityEstimator(velocityEstimator);
+    }
+
+    /**
+     * Sets the provider of per row swipe mode, actions, offsets and threshold. It is asked once
+     * per gesture, on ACTION_DOWN, and replaces onChangeSwipeMode while set
+     *
+     * @param rowPolicyProvider Provider, or null to use the list settings
+     */
+    public void setRowPolicyProvider(SwipeRowPolicyProvider rowPolicyProvider) {
+        touchListener.setRowPolicyProvider(rowPolicyProvider);
+    }
+
+    /**
+     * Sets the logger that receives the diagnostics. Disabled by default
+     *
+     * @param logger Logger, SwipeListViewLogger.LOGCAT or null to disable
+     */
+    public void setLogger(SwipeListViewLogger logger) {
+        touchListener.setLogger(logger);
+    }
+
+    /**
+     * Enables trace sections around the swipe phases, visible in systrace on API 18 and later.
+     * Disabled by default
+     *
+     * @param enabled true to emit the sections
+     */
+    public static void setTraceEnabled(boolean enabled) {
+        SwipeTrace.setEnabled(enabled);
+    }
+
+    /**
+     * Sets the listener that receives the metrics of every swipe and dismiss commit. Disabled by
+     * default
+     *
+     * @param metricsListener Listener, or null to stop measuring
+     */
+    public void setMetricsListener(SwipeMetricsListener metricsListener) {
+        touchListener.setMetricsListener(metricsListener);
+    }
+
     /**
      * Resets scrolling
      */
@@ -596,6 +930,15 @@ public class SwipeListView extends ListView {
         touchListener.setSwipeActionRight(swipeActionRight);
     }
 
+    /**
+     * Set how dismissed rows collapse
+     *
+     * @param swipeDismissCollapse SWIPE_DISMISS_COLLAPSE_LAYOUT or SWIPE_DISMISS_COLLAPSE_TRANSLATION
+     */
+    public void setSwipeDismissCollapse(int swipeDismissCollapse) {
+        touchListener.setDismissCollapse(swipeDismissCollapse);
+    }
+
     /**
      * Sets animation time when user drops cell
      *
@@ -622,7 +965,9 @@ public class SwipeListView extends ListView {
 
             switch (action) {
                 case MotionEvent.ACTION_MOVE:
+                    SwipeTrace.begin(SwipeTrace.INTERCEPT);
                     checkInMoving(x, y);
+                    SwipeTrace.end();
                     return touchState == TOUCH_STATE_SCROLLING_Y;
                 case MotionEvent.ACTION_DOWN:
                     touchListener.onTouch(this, ev);
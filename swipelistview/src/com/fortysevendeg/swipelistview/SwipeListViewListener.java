@@ -76,15 +76,30 @@ public interface SwipeListViewListener {
      */
     void onClickBackView(int position);
 
+    /**
+     * Called when user clicks on an action drawn behind the front view, right before onClickBackView
+     * @param position list item
+     * @param actionId id of the SwipeBackAction clicked
+     */
+    void onClickBackAction(int position, int actionId);
+
     /**
      * Called when user dismisses items
      * @param reverseSortedPositions Items dismissed
      */
     void onDismiss(int[] reverseSortedPositions);
 
+    /**
+     * Called when user dismisses the selected items. Ranges are merged and sorted by descending
+     * start, so they can be removed from the data in the given order
+     * @param reverseSortedStarts First position of every range dismissed
+     * @param counts Items in every range
+     */
+    void onDismissRanges(int[] reverseSortedStarts, int[] counts);
+
     /**
      * Used when user want to change swipe list mode on some rows. Return SWIPE_MODE_DEFAULT
-     * if you don't want to change swipe list mode
+     * if you don't want to change swipe list mode. Called once per gesture, when the row is touched
      * @param position position that you want to change
      * @return type
      */
@@ -97,6 +112,14 @@ public interface SwipeListViewListener {
      */
     void onChoiceChanged(int position, boolean selected);
 
+    /**
+     * Called when the choice state of several items changes at once (select all, select range or
+     * invert selection). Use isChecked to read the new states
+     * @param from first position changed
+     * @param to last position changed
+     */
+    void onChoiceRangeChanged(int from, int to);
+
     /**
      * User start choice items
      */
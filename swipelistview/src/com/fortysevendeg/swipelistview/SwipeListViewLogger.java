@@ -0,0 +1,46 @@
+/*
+ * Copyright (C) 2013 47 Degrees, LLC
+ * http://47deg.com
+ * hello@47deg.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.fortysevendeg.swipelistview;
+
+import android.util.Log;
+
+/**
+ * Receives the SwipeListView diagnostics. No logger is set by default, and messages are only
+ * built when one is set, so release builds pay nothing for them
+ */
+public interface SwipeListViewLogger {
+
+    /**
+     * Logger that writes to logcat with the SwipeListView tag
+     */
+    SwipeListViewLogger LOGCAT = new SwipeListViewLogger() {
+        @Override
+        public void log(String message) {
+            Log.d("SwipeListView", message);
+        }
+    };
+
+    /**
+     * Called for every diagnostic message
+     *
+     * @param message message
+     */
+    void log(String message);
+
+}
@@ -20,27 +20,23 @@
 
 package com.fortysevendeg.swipelistview;
 
+import android.graphics.Canvas;
 import android.graphics.Rect;
 import android.os.Build;
 import android.os.Handler;
 import android.support.v4.view.MotionEventCompat;
-import android.util.Log;
 import android.view.*;
+import android.view.animation.AccelerateDecelerateInterpolator;
+import android.view.animation.DecelerateInterpolator;
+import android.view.animation.Interpolator;
 import android.widget.AbsListView;
+import android.widget.ListAdapter;
 import android.widget.ListView;
 
-import com.nineoldandroids.animation.Animator;
-import com.nineoldandroids.animation.AnimatorListenerAdapter;
-import com.nineoldandroids.animation.ValueAnimator;
-import com.nineoldandroids.view.ViewHelper;
-
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
-
-import static com.nineoldandroids.view.ViewHelper.setAlpha;
-import static com.nineoldandroids.view.ViewHelper.setTranslationX;
-import static com.nineoldandroids.view.ViewPropertyAnimator.animate;
+import java.util.Map;
+import java.util.WeakHashMap;
 
 /**
  * Touch listener impl for the SwipeListView
@@ -49,6 +45,10 @@ public class SwipeListViewTouchListener implements View.OnTouchListener {
 
     private static final int DISPLACE_CHOICE = 80;
 
+    private static final float DEFAULT_SWAP_THRESHOLD = 0.5f;
+
+    private static final long MIN_FLING_DURATION = 60;
+
     private int swipeMode = SwipeListView.SWIPE_MODE_BOTH;
     private boolean swipeOpenOnLongPress = true;
     private boolean swipeClosesAllItemsWhenListMoves = true;
@@ -65,6 +65,14 @@ public class SwipeListViewTouchListener implements View.OnTouchListener {
     private long configShortAnimationTime;
     private long animationTime;
 
+    private int animationMode = SwipeListView.SWIPE_ANIMATION_FIXED;
+    private float releaseVelocityX;
+    private final Interpolator flingInterpolator = new DecelerateInterpolator();
+    private final Interpolator fixedInterpolator = new AccelerateDecelerateInterpolator();
+
+    private int renderStrategy = SwipeListView.SWIPE_RENDER_NONE;
+    private View layeredView;
+
     private float leftOffset = 0;
     private float rightOffset = 0;
 
@@ -75,13 +83,24 @@ public class SwipeListViewTouchListener implements View.OnTouchListener {
     private SwipeListView swipeListView;
     private int viewWidth = 1; // 1 and not 0 to prevent dividing by zero
 
-    private List<PendingDismissData> pendingDismisses = new ArrayList<PendingDismissData>();
-    private int dismissAnimationRefCount = 0;
+    private final SwipeAnimator swipeAnimator = SwipeAnimator.create();
+
+    private DismissTransaction dismissTransaction;
+
+    private boolean measureRelease = false;
+    private int dismissCommitDepth = 0;
+    private int dismissLastCount = 0;
+    private boolean resetDeferred = false;
+
+    private LazyBackViews lazyBackViews;
+
+    private Map<View, SwipeViewHolder> legacyHolders;
 
     private float downX;
     private boolean swiping;
     private boolean swipingRight;
-    private VelocityTracker velocityTracker;
+    private SwipeVelocityEstimator velocityEstimator = new RingBufferVelocityEstimator();
+    private boolean tracking;
     private int downPosition;
     private View parentView;
     private View frontView;
@@ -93,13 +112,55 @@ public class SwipeListViewTouchListener implements View.OnTouchListener {
     private int swipeActionLeft = SwipeListView.SWIPE_ACTION_REVEAL;
     private int swipeActionRight = SwipeListView.SWIPE_ACTION_REVEAL;
 
-    private List<Boolean> opened = new ArrayList<Boolean>();
-    private List<Boolean> openedRight = new ArrayList<Boolean>();
+    private RowStates rowStates = new PackedRowStates();
+
+    private SwipeListViewLogger logger;
+
+    private SwipeMetricsTracker metricsTracker;
+
+    private SwipeRowPolicyProvider rowPolicyProvider;
+    private final SwipeRowPolicy rowPolicy = new SwipeRowPolicy();
+    private int policyPosition = ListView.INVALID_POSITION;
+    private final SwipeRowPolicy offsetPolicy = new SwipeRowPolicy();
+
+    private FrameSync frameSync;
+    private boolean movePending;
+    private float pendingDeltaX;
     private boolean listViewMoving;
-    private List<Boolean> checked = new ArrayList<Boolean>();
     private int oldSwipeActionRight;
     private int oldSwipeActionLeft;
 
+    private final View.OnClickListener frontClickListener = new View.OnClickListener() {
+        @Override
+        public void onClick(View v) {
+            swipeListView.onClickFrontView(downPosition);
+        }
+    };
+
+    private final View.OnLongClickListener frontLongClickListener = new View.OnLongClickListener() {
+        @Override
+        public boolean onLongClick(View v) {
+            openAnimate(downPosition);
+            return false;
+        }
+    };
+
+    private final View.OnClickListener backClickListener = new View.OnClickListener() {
+        @Override
+        public void onClick(View v) {
+            swipeListView.onClickBackView(downPosition);
+        }
+    };
+
+    private final List<AnimationCallback> callbackPool = new ArrayList<AnimationCallback>();
+    private final List<AnimationCallback> runningCallbacks = new ArrayList<AnimationCallback>();
+
+    private final List<View> renderedViews = new ArrayList<View>();
+
+    private DrawnBackActions drawnBackActions;
+    private SwipeBackAction pressedBackAction;
+    private final Rect pressedBackActionBounds = new Rect();
+
     /**
      * Constructor
      *
@@ -117,6 +178,9 @@ public class SwipeListViewTouchListener implements View.OnTouchListener {
         configShortAnimationTime = swipeListView.getContext().getResources().getInteger(android.R.integer.config_shortAnimTime);
         animationTime = configShortAnimationTime;
         this.swipeListView = swipeListView;
+        dismissTransaction = new DismissTransaction(swipeListView, swipeAnimator);
+        lazyBackViews = new LazyBackViews(swipeBackView, swipeAnimator);
+        drawnBackActions = new DrawnBackActions(swipeListView.getContext());
     }
 
     /**
@@ -135,21 +199,153 @@ public class SwipeListViewTouchListener implements View.OnTouchListener {
      */
     private void setFrontView(View frontView) {
         this.frontView = frontView;
-        frontView.setOnClickListener(new View.OnClickListener() {
-            @Override
-            public void onClick(View v) {
-                swipeListView.onClickFrontView(downPosition);
-            }
-        });
+        frontView.setOnClickListener(frontClickListener);
         if (swipeOpenOnLongPress) {
-            frontView.setOnLongClickListener(new View.OnLongClickListener() {
-                @Override
-                public boolean onLongClick(View v) {
-                    openAnimate(downPosition);
-                    return false;
-                }
-            });
+            frontView.setOnLongClickListener(frontLongClickListener);
+        }
+    }
+
+    /**
+     * Sets the logger for diagnostics
+     *
+     * @param logger logger, or null to disable them
+     */
+    public void setLogger(SwipeListViewLogger logger) {
+        this.logger = logger;
+    }
+
+    /**
+     * Sets the listener of swipe metrics. Frames are only counted while a listener is set
+     *
+     * @param metricsListener listener, or null to stop measuring
+     */
+    public void setMetricsListener(SwipeMetricsListener metricsListener) {
+        ViewTreeObserver observer = swipeListView.getViewTreeObserver();
+        if (metricsTracker != null && observer.isAlive()) {
+            observer.removeOnPreDrawListener(metricsTracker);
+        }
+        metricsTracker = metricsListener != null ? new SwipeMetricsTracker(swipeListView.getContext(), metricsListener) : null;
+        if (metricsTracker != null && observer.isAlive()) {
+            observer.addOnPreDrawListener(metricsTracker);
+        }
+        dismissTransaction.setMetricsTracker(metricsTracker);
+    }
+
+    /**
+     * Sets the velocity estimator used to classify and release swipes
+     *
+     * @param velocityEstimator estimator, or null for the default one
+     */
+    public void setVelocityEstimator(SwipeVelocityEstimator velocityEstimator) {
+        this.velocityEstimator = velocityEstimator != null ? velocityEstimator : new RingBufferVelocityEstimator();
+    }
+
+    /**
+     * Sets if moves are applied once per display frame. Ignored before API 16
+     *
+     * @param enabled true to sync moves with the display frames
+     */
+    public void setFrameSync(boolean enabled) {
+        flushMove();
+        frameSync = enabled && Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN ? new FrameSync(this) : null;
+    }
+
+    /**
+     * Moves the row now, or on the next frame when moves are synced with the display. Moves
+     * received before that frame only update the position
+     *
+     * @param deltaX delta
+     */
+    private void requestMove(float deltaX) {
+        if (frameSync == null) {
+            move(deltaX);
+            return;
+        }
+        pendingDeltaX = deltaX;
+        if (!movePending) {
+            movePending = true;
+            frameSync.schedule();
+        }
+    }
+
+    /**
+     * Applies the pending move right away
+     */
+    private void flushMove() {
+        if (movePending) {
+            frameSync.cancel();
+            onFrame();
+        }
+    }
+
+    /**
+     * Applies the pending move
+     */
+    void onFrame() {
+        if (movePending) {
+            movePending = false;
+            if (swiping && downPosition != ListView.INVALID_POSITION) {
+                move(pendingDeltaX);
+            }
+        }
+    }
+
+    /**
+     * Sets the provider of per row swipe policies
+     *
+     * @param rowPolicyProvider provider, or null to use the list settings and onChangeSwipeMode
+     */
+    public void setRowPolicyProvider(SwipeRowPolicyProvider rowPolicyProvider) {
+        this.rowPolicyProvider = rowPolicyProvider;
+    }
+
+    /**
+     * Resolves the policy of the touched row, once per gesture. Without a provider the list
+     * settings are used, with the mode returned by onChangeSwipeMode
+     *
+     * @param position position in list
+     */
+    private void resolveRowPolicy(int position) {
+        rowPolicy.set(swipeMode, swipeActionLeft, swipeActionRight, leftOffset, rightOffset, DEFAULT_SWAP_THRESHOLD);
+        if (rowPolicyProvider != null) {
+            rowPolicyProvider.resolveRowPolicy(position, rowPolicy);
+            if (getCountSelected() > 0) {
+                rowPolicy.actionLeft = SwipeListView.SWIPE_ACTION_CHOICE;
+                rowPolicy.actionRight = SwipeListView.SWIPE_ACTION_CHOICE;
+            }
+        } else {
+            int changeSwipeMode = swipeListView.changeSwipeMode(position);
+            if (changeSwipeMode >= 0) {
+                rowPolicy.mode = changeSwipeMode;
+            }
         }
+        policyPosition = position;
+    }
+
+    private float leftOffsetAt(int position) {
+        return policyAt(position).leftOffset;
+    }
+
+    private float rightOffsetAt(int position) {
+        return policyAt(position).rightOffset;
+    }
+
+    /**
+     * Policy of a row for its offsets: the one of the touched row, or one resolved from the
+     * provider into a separate instance, so the gesture policy is left untouched
+     *
+     * @param position position in list
+     * @return row policy, only valid until the next call
+     */
+    private SwipeRowPolicy policyAt(int position) {
+        if (position == policyPosition) {
+            return rowPolicy;
+        }
+        offsetPolicy.set(swipeMode, swipeActionLeft, swipeActionRight, leftOffset, rightOffset, DEFAULT_SWAP_THRESHOLD);
+        if (rowPolicyProvider != null) {
+            rowPolicyProvider.resolveRowPolicy(position, offsetPolicy);
+        }
+        return offsetPolicy;
     }
 
     /**
@@ -159,12 +355,20 @@ public class SwipeListViewTouchListener implements View.OnTouchListener {
      */
     private void setBackView(View backView) {
         this.backView = backView;
-        backView.setOnClickListener(new View.OnClickListener() {
-            @Override
-            public void onClick(View v) {
-                swipeListView.onClickBackView(downPosition);
-            }
-        });
+        if (backView != null) {
+            backView.setOnClickListener(backClickListener);
+        }
+    }
+
+    /**
+     * Set current item's back view visibility. Rows with drawn back actions may have no back view
+     *
+     * @param visibility View.VISIBLE or View.GONE
+     */
+    private void setBackViewVisibility(int visibility) {
+        if (backView != null) {
+            backView.setVisibility(visibility);
+        }
     }
 
     /**
@@ -174,6 +378,109 @@ public class SwipeListViewTouchListener implements View.OnTouchListener {
         return listViewMoving;
     }
 
+    /**
+     * Sets how the cell animates when the user drops it
+     *
+     * @param animationMode SWIPE_ANIMATION_FIXED or SWIPE_ANIMATION_FLING
+     */
+    public void setAnimationMode(int animationMode) {
+        this.animationMode = animationMode;
+    }
+
+    /**
+     * Sets how moving rows are rendered
+     *
+     * @param renderStrategy SWIPE_RENDER_NONE, SWIPE_RENDER_HARDWARE_LAYER or SWIPE_RENDER_SNAPSHOT
+     */
+    public void setRenderStrategy(int renderStrategy) {
+        this.renderStrategy = renderStrategy;
+    }
+
+    /**
+     * Sets the actions drawn behind the front view when swiping to the left
+     *
+     * @param actions actions, or null for none
+     */
+    public void setBackActionsLeft(SwipeBackAction[] actions) {
+        drawnBackActions.setSwipeLeftActions(actions);
+        swipeListView.invalidate();
+    }
+
+    /**
+     * Sets the actions drawn behind the front view when swiping to the right
+     *
+     * @param actions actions, or null for none
+     */
+    public void setBackActionsRight(SwipeBackAction[] actions) {
+        drawnBackActions.setSwipeRightActions(actions);
+        swipeListView.invalidate();
+    }
+
+    /**
+     * Draws the back actions uncovered by the translated front views, before the list draws
+     * its children. Child translations do not redraw the list, so it is invalidated again while
+     * an animation is running
+     *
+     * @param canvas list canvas
+     */
+    void drawBackActions(Canvas canvas) {
+        if (drawnBackActions.isEmpty()) {
+            return;
+        }
+        int childCount = swipeListView.getChildCount();
+        for (int i = 0; i < childCount; i++) {
+            View child = swipeListView.getChildAt(i);
+            View front = holderOf(child).frontView;
+            if (front != null && drawnBackActions.layout(child, front, swipeAnimator.getTranslationX(front)) > 0) {
+                drawnBackActions.draw(canvas);
+            }
+        }
+        if (!runningCallbacks.isEmpty()) {
+            swipeListView.invalidate();
+        }
+    }
+
+    /**
+     * Renders a view that starts moving into a layer, so it is composited instead of redrawn on
+     * every frame. Views that already have a layer, or a drawing cache before Honeycomb, are left
+     * alone and not recorded, so endRender keeps the ones the app set
+     *
+     * @param view moving view
+     */
+    private void beginRender(View view) {
+        if (renderStrategy == SwipeListView.SWIPE_RENDER_NONE || view == null || renderedViews.contains(view)) {
+            return;
+        }
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.HONEYCOMB) {
+            if (view.getLayerType() != View.LAYER_TYPE_NONE) {
+                return;
+            }
+            view.setLayerType(renderStrategy == SwipeListView.SWIPE_RENDER_HARDWARE_LAYER ? View.LAYER_TYPE_HARDWARE : View.LAYER_TYPE_SOFTWARE, null);
+        } else {
+            if (view.isDrawingCacheEnabled()) {
+                return;
+            }
+            view.setDrawingCacheEnabled(true);
+        }
+        renderedViews.add(view);
+    }
+
+    /**
+     * Removes the layer, only if beginRender set it
+     *
+     * @param view view that stopped moving
+     */
+    private void endRender(View view) {
+        if (view == null || !renderedViews.remove(view)) {
+            return;
+        }
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.HONEYCOMB) {
+            view.setLayerType(View.LAYER_TYPE_NONE, null);
+        } else {
+            view.setDrawingCacheEnabled(false);
+        }
+    }
+
     /**
      * Sets animation time when the user drops the cell
      *
@@ -296,26 +603,133 @@ public class SwipeListViewTouchListener implements View.OnTouchListener {
     }
 
     /**
-     * Adds new items when adapter is modified
+     * Set how dismissed rows collapse
+     *
+     * @param dismissCollapse SWIPE_DISMISS_COLLAPSE_LAYOUT or SWIPE_DISMISS_COLLAPSE_TRANSLATION
+     */
+    public void setDismissCollapse(int dismissCollapse) {
+        dismissTransaction.setCollapseMode(dismissCollapse);
+    }
+
+    /**
+     * Resizes the row states when adapter is modified. Adapters with stable ids keep the state
+     * keyed by item id, so it survives inserts and removals. While a dismiss is being notified the
+     * resize waits until the listener returns. The choice mode ends if no selected row is left
      */
     public void resetItems() {
-        if (swipeListView.getAdapter() != null) {
-            int count = swipeListView.getAdapter().getCount();
-            for (int i = opened.size(); i <= count; i++) {
-                opened.add(false);
-                openedRight.add(false);
-                checked.add(false);
+        if (dismissCommitDepth > 0) {
+            resetDeferred = true;
+            return;
+        }
+        int lastCount = getCountSelected();
+        resizeRowStates();
+        updateChoiceMode(lastCount);
+    }
+
+    /**
+     * Picks the row state store for the adapter and sizes it to the adapter count
+     */
+    private void resizeRowStates() {
+        ListAdapter adapter = swipeListView.getAdapter();
+        if (adapter != null) {
+            SwipeTrace.begin(SwipeTrace.RESET_ITEMS);
+            if (adapter.hasStableIds()) {
+                if (!(rowStates instanceof StableIdRowStates) || ((StableIdRowStates) rowStates).getAdapter() != adapter) {
+                    rowStates = new StableIdRowStates(adapter);
+                }
+            } else if (!(rowStates instanceof PackedRowStates)) {
+                rowStates = new PackedRowStates();
             }
+            rowStates.setCount(adapter.getCount());
+            SwipeTrace.end();
         }
     }
 
+    /**
+     * Called before the dismiss listener is notified, the row states are left as they are until
+     * it returns
+     */
+    void beginDismissCommit() {
+        if (dismissCommitDepth++ == 0) {
+            dismissLastCount = getCountSelected();
+        }
+    }
+
+    /**
+     * Called once the dismiss listener returned. The row states are shifted past the dismissed
+     * rows only if the listener removed them from the adapter and did not shift the states itself,
+     * so a listener that keeps the items keeps their state. The choice mode ends if the dismissed
+     * rows were the selected ones
+     *
+     * @param reverseSortedStarts first position of each dismissed range, in descending order
+     * @param counts              rows in each range
+     */
+    void endDismissCommit(int[] reverseSortedStarts, int[] counts) {
+        dismissCommitDepth--;
+        ListAdapter adapter = swipeListView.getAdapter();
+        int removed = 0;
+        for (int count : counts) {
+            removed += count;
+        }
+        if (adapter != null && rowStates.getCount() - adapter.getCount() == removed) {
+            for (int i = 0; i < reverseSortedStarts.length; i++) {
+                rowStates.removeRows(reverseSortedStarts[i], counts[i]);
+            }
+        }
+        if (dismissCommitDepth == 0) {
+            if (resetDeferred) {
+                resetDeferred = false;
+                resizeRowStates();
+            }
+            updateChoiceMode(dismissLastCount);
+        }
+    }
+
+    /**
+     * Shifts the row states after items were inserted
+     *
+     * @param position first position inserted
+     * @param count    items inserted
+     */
+    public void onItemsInserted(int position, int count) {
+        rowStates.insertRows(position, count);
+    }
+
+    /**
+     * Drops the row states of removed items and shifts the following ones. The choice mode ends
+     * if no selected row is left, once the dismiss being notified, if any, returns
+     *
+     * @param position first position removed
+     * @param count    items removed
+     */
+    public void onItemsRemoved(int position, int count) {
+        int lastCount = getCountSelected();
+        rowStates.removeRows(position, count);
+        if (dismissCommitDepth == 0) {
+            updateChoiceMode(lastCount);
+        }
+    }
+
+    /**
+     * Moves the row state of a moved item
+     *
+     * @param from old position
+     * @param to   new position
+     */
+    public void onItemMoved(int from, int to) {
+        rowStates.moveRow(from, to);
+    }
+
     /**
      * Open item
      *
      * @param position Position of list
      */
     protected void openAnimate(int position) {
-        openAnimate(swipeListView.getChildAt(position - swipeListView.getFirstVisiblePosition()).findViewById(swipeFrontView), position);
+        SwipeViewHolder holder = holderAt(position);
+        if (holder != null) {
+            openAnimate(holder, position);
+        }
     }
 
     /**
@@ -324,7 +738,10 @@ public class SwipeListViewTouchListener implements View.OnTouchListener {
      * @param position Position of list
      */
     protected void closeAnimate(int position) {
-        closeAnimate(swipeListView.getChildAt(position - swipeListView.getFirstVisiblePosition()).findViewById(swipeFrontView), position);
+        SwipeViewHolder holder = holderAt(position);
+        if (holder != null) {
+            closeAnimate(holder.frontView, position);
+        }
     }
 
     /**
@@ -334,23 +751,113 @@ public class SwipeListViewTouchListener implements View.OnTouchListener {
      */
     private void swapChoiceState(int position) {
         int lastCount = getCountSelected();
-        boolean lastChecked = checked.get(position);
-        checked.set(position, !lastChecked);
-        int count = lastChecked ? lastCount - 1 : lastCount + 1;
-        if (lastCount == 0 && count == 1) {
+        boolean lastChecked = rowStates.isChecked(position);
+        rowStates.setChecked(position, !lastChecked);
+        updateChoiceMode(lastCount);
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.HONEYCOMB) {
+            swipeListView.setItemChecked(position, !lastChecked);
+        }
+        swipeListView.onChoiceChanged(position, !lastChecked);
+        reloadChoiceStateInView(frontView, position);
+    }
+
+    /**
+     * Select or unselect a range of items. The range is clamped to the adapter
+     *
+     * @param from     first position
+     * @param to       last position
+     * @param selected true to select
+     */
+    protected void setChoiceStates(int from, int to, boolean selected) {
+        from = Math.max(from, 0);
+        to = Math.min(to, rowStates.getCount() - 1);
+        if (from > to) {
+            return;
+        }
+        int lastCount = getCountSelected();
+        rowStates.setCheckedRange(from, to, selected);
+        onChoiceStatesChanged(lastCount, from, to);
+    }
+
+    /**
+     * Select all items
+     */
+    protected void selectAll() {
+        int lastCount = getCountSelected();
+        rowStates.checkAll();
+        uncheckUnselectable();
+        onChoiceStatesChanged(lastCount, 0, rowStates.getCount() - 1);
+    }
+
+    /**
+     * Select the unselected items and unselect the selected ones
+     */
+    protected void invertSelection() {
+        int lastCount = getCountSelected();
+        rowStates.invertChecked();
+        uncheckUnselectable();
+        onChoiceStatesChanged(lastCount, 0, rowStates.getCount() - 1);
+    }
+
+    /**
+     * Leaves headers, footers and disabled rows out of a select all or an inversion
+     */
+    private void uncheckUnselectable() {
+        int count = rowStates.getCount();
+        int headers = Math.min(swipeListView.getHeaderViewsCount(), count);
+        int footers = Math.max(count - swipeListView.getFooterViewsCount(), headers);
+        if (headers > 0) {
+            rowStates.setCheckedRange(0, headers - 1, false);
+        }
+        if (footers < count) {
+            rowStates.setCheckedRange(footers, count - 1, false);
+        }
+        ListAdapter adapter = swipeListView.getAdapter();
+        if (adapter != null && !adapter.areAllItemsEnabled()) {
+            for (int i = headers; i < footers; i++) {
+                if (!adapter.isEnabled(i) && rowStates.isChecked(i)) {
+                    rowStates.setChecked(i, false);
+                }
+            }
+        }
+    }
+
+    /**
+     * Starts or ends the choice mode when the selection becomes non empty or empty
+     *
+     * @param lastCount selected items before the change
+     */
+    private void updateChoiceMode(int lastCount) {
+        int count = getCountSelected();
+        if (lastCount == 0 && count > 0) {
             swipeListView.onChoiceStarted();
             closeOpenedItems();
             setActionsTo(SwipeListView.SWIPE_ACTION_CHOICE);
         }
-        if (lastCount == 1 && count == 0) {
+        if (lastCount > 0 && count == 0) {
             swipeListView.onChoiceEnded();
             returnOldActions();
         }
-        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.HONEYCOMB) {
-            swipeListView.setItemChecked(position, !lastChecked);
+    }
+
+    /**
+     * Redraws the visible items of a bulk choice change and notifies it once
+     *
+     * @param lastCount selected items before the change
+     * @param from      first position changed
+     * @param to        last position changed
+     */
+    private void onChoiceStatesChanged(int lastCount, int from, int to) {
+        updateChoiceMode(lastCount);
+        int start = swipeListView.getFirstVisiblePosition();
+        int end = Math.min(to, swipeListView.getLastVisiblePosition());
+        for (int i = Math.max(from, start); i <= end; i++) {
+            View front = holderOf(swipeListView.getChildAt(i - start)).frontView;
+            if (front != null) {
+                reloadChoiceStateInView(front, i);
+            }
         }
-        swipeListView.onChoiceChanged(position, !lastChecked);
-        reloadChoiceStateInView(frontView, position);
+        swipeListView.onChoiceRangeChanged(from, to);
     }
 
     /**
@@ -359,31 +866,61 @@ public class SwipeListViewTouchListener implements View.OnTouchListener {
     protected void unselectedChoiceStates() {
         int start = swipeListView.getFirstVisiblePosition();
         int end = swipeListView.getLastVisiblePosition();
-        for (int i = 0; i < checked.size(); i++) {
-            if (checked.get(i) && i >= start && i <= end) {
-                reloadChoiceStateInView(swipeListView.getChildAt(i - start).findViewById(swipeFrontView), i);
+        for (int i = start; i <= end; i++) {
+            if (!rowStates.isChecked(i)) {
+                continue;
+            }
+            rowStates.setChecked(i, false);
+            View front = holderOf(swipeListView.getChildAt(i - start)).frontView;
+            if (front != null) {
+                reloadChoiceStateInView(front, i);
             }
-            checked.set(i, false);
         }
+        rowStates.clearChecked();
         swipeListView.onChoiceEnded();
         returnOldActions();
     }
 
     /**
-     * Unselected choice state in item
+     * Dismiss item. Visible rows are animated, the others are committed right away unless other
+     * dismisses are still running
+     *
+     * @param position position in list
+     */
+    protected void dismiss(int position) {
+        int start = swipeListView.getFirstVisiblePosition();
+        int end = swipeListView.getLastVisiblePosition();
+        if (position >= start && position <= end) {
+            performDismiss(swipeListView.getChildAt(position - start), position);
+        } else {
+            dismissTransaction.add(position);
+            dismissTransaction.commitIfIdle();
+        }
+    }
+
+    /**
+     * Stops the dismisses in flight without notifying them
+     */
+    protected void cancelDismisses() {
+        dismissTransaction.cancel();
+    }
+
+    /**
+     * Dismiss all selected items. Only the visible ones are animated, the rest are collected as
+     * ranges and committed with them in a single onDismissRanges
      */
-    protected int dismiss(int position) {
+    protected void dismissSelected() {
         int start = swipeListView.getFirstVisiblePosition();
         int end = swipeListView.getLastVisiblePosition();
-        View view = swipeListView.getChildAt(position - start);
-        ++dismissAnimationRefCount;
-        if (position >= start && position <= end) {
-            performDismiss(view, position, false);
-            return view.getHeight();
-        } else {
-            pendingDismisses.add(new PendingDismissData(position, null));
-            return 0;
+        for (int from = rowStates.nextChecked(0); from >= 0; ) {
+            int to = rowStates.nextUnchecked(from) - 1;
+            dismissTransaction.addRange(from, to);
+            for (int i = Math.max(from, start); i <= Math.min(to, end); i++) {
+                performDismiss(swipeListView.getChildAt(i - start), i);
+            }
+            from = rowStates.nextChecked(to + 1);
         }
+        dismissTransaction.commitIfIdle();
     }
 
     /**
@@ -407,7 +944,7 @@ public class SwipeListViewTouchListener implements View.OnTouchListener {
      * @return
      */
     protected boolean isChecked(int position) {
-        return position < checked.size() && checked.get(position);
+        return rowStates.isChecked(position);
     }
 
     /**
@@ -416,14 +953,7 @@ public class SwipeListViewTouchListener implements View.OnTouchListener {
      * @return
      */
     protected int getCountSelected() {
-        int count = 0;
-        for (int i = 0; i < checked.size(); i++) {
-            if (checked.get(i)) {
-                count++;
-            }
-        }
-        Log.d("SwipeListView", "selected: " + count);
-        return count;
+        return rowStates.getCheckedCount();
     }
 
     /**
@@ -432,24 +962,51 @@ public class SwipeListViewTouchListener implements View.OnTouchListener {
      * @return
      */
     protected List<Integer> getPositionsSelected() {
-        List<Integer> list = new ArrayList<Integer>();
-        for (int i = 0; i < checked.size(); i++) {
-            if (checked.get(i)) {
-                list.add(i);
-            }
+        List<Integer> list = new ArrayList<Integer>(rowStates.getCheckedCount());
+        for (int i = rowStates.nextChecked(0); i >= 0; i = rowStates.nextChecked(i + 1)) {
+            list.add(i);
         }
         return list;
     }
 
+    /**
+     * Get positions selected, in ascending order
+     *
+     * @return positions
+     */
+    protected int[] getSelectedPositions() {
+        return rowStates.getCheckedPositions();
+    }
+
+    /**
+     * Get ids of the items selected
+     *
+     * @return ids
+     */
+    protected long[] getSelectedIds() {
+        return rowStates.getCheckedIds(swipeListView.getAdapter());
+    }
+
+    /**
+     * Find the next selected position
+     *
+     * @param position first position to look at
+     * @return first selected position at or after position, or -1 if there is none
+     */
+    protected int nextSelectedPosition(int position) {
+        return rowStates.nextChecked(position);
+    }
+
     /**
      * Open item
      *
-     * @param view     affected view
+     * @param holder   row holder
      * @param position Position of list
      */
-    private void openAnimate(View view, int position) {
-        if (!opened.get(position)) {
-            generateRevealAnimate(view, true, false, position);
+    private void openAnimate(SwipeViewHolder holder, int position) {
+        if (!rowStates.isOpened(position)) {
+            inflateBackView(holder, position);
+            generateRevealAnimate(holder.frontView, true, false, position);
         }
     }
 
@@ -460,7 +1017,7 @@ public class SwipeListViewTouchListener implements View.OnTouchListener {
      * @param position Position of list
      */
     private void closeAnimate(View view, int position) {
-        if (opened.get(position)) {
+        if (rowStates.isOpened(position)) {
             generateRevealAnimate(view, true, false, position);
         }
     }
@@ -474,7 +1031,9 @@ public class SwipeListViewTouchListener implements View.OnTouchListener {
      * @param position  Position of list
      */
     private void generateAnimate(final View view, final boolean swap, final boolean swapRight, final int position) {
-        Log.d("SwipeListView", "swap: " + swap + " - swapRight: " + swapRight + " - position: " + position);
+        if (logger != null) {
+            logger.log("swap: " + swap + " - swapRight: " + swapRight + " - position: " + position);
+        }
         if (swipeCurrentAction == SwipeListView.SWIPE_ACTION_REVEAL) {
             generateRevealAnimate(view, swap, swapRight, position);
         }
@@ -492,17 +1051,10 @@ public class SwipeListViewTouchListener implements View.OnTouchListener {
      * @param view     affected view
      * @param position list position
      */
-    private void generateChoiceAnimate(final View view, final int position) {
-        animate(view)
-                .translationX(0)
-                .setDuration(animationTime)
-                .setListener(new AnimatorListenerAdapter() {
-                    @Override
-                    public void onAnimationEnd(Animator animation) {
-                        swipeListView.resetScrolling();
-                        resetCell();
-                    }
-                });
+    private void generateChoiceAnimate(View view, int position) {
+        beginRender(view);
+        swipeAnimator.animate(view, 0, Float.NaN, animationTime, fixedInterpolator,
+                obtainCallback(SwipeListView.SWIPE_ACTION_CHOICE, view, false, false, position, 0));
     }
 
     /**
@@ -513,39 +1065,28 @@ public class SwipeListViewTouchListener implements View.OnTouchListener {
      * @param swapRight If swap is true, this parameter tells if move is to the right or left
      * @param position  Position of list
      */
-    private void generateDismissAnimate(final View view, final boolean swap, final boolean swapRight, final int position) {
+    private void generateDismissAnimate(View view, boolean swap, boolean swapRight, int position) {
         int moveTo = 0;
-        if (opened.get(position)) {
+        if (rowStates.isOpened(position)) {
             if (!swap) {
-                moveTo = openedRight.get(position) ? (int) (viewWidth - rightOffset) : (int) (-viewWidth + leftOffset);
+                moveTo = rowStates.isOpenedRight(position) ? (int) (viewWidth - rightOffsetAt(position)) : (int) (-viewWidth + leftOffsetAt(position));
             }
         } else {
             if (swap) {
-                moveTo = swapRight ? (int) (viewWidth - rightOffset) : (int) (-viewWidth + leftOffset);
+                moveTo = swapRight ? (int) (viewWidth - rightOffsetAt(position)) : (int) (-viewWidth + leftOffsetAt(position));
             }
         }
 
         int alpha = 1;
+        int generation;
         if (swap) {
-            ++dismissAnimationRefCount;
+            generation = dismissTransaction.begin();
             alpha = 0;
+        } else {
+            generation = 0;
         }
 
-        animate(view)
-                .translationX(moveTo)
-                .alpha(alpha)
-                .setDuration(animationTime)
-                .setListener(new AnimatorListenerAdapter() {
-                    @Override
-                    public void onAnimationEnd(Animator animation) {
-                        if (swap) {
-                            closeOpenedItems();
-                            performDismiss(view, position, true);
-                        }
-                        resetCell();
-                    }
-                });
-
+        animateTo(view, moveTo, alpha, obtainCallback(SwipeListView.SWIPE_ACTION_DISMISS, view, swap, swapRight, position, generation));
     }
 
     /**
@@ -556,50 +1097,462 @@ public class SwipeListViewTouchListener implements View.OnTouchListener {
      * @param swapRight If swap is true, this parameter tells if movement is toward right or left
      * @param position  list position
      */
-    private void generateRevealAnimate(final View view, final boolean swap, final boolean swapRight, final int position) {
+    private void generateRevealAnimate(View view, boolean swap, boolean swapRight, int position) {
+        SwipeTrace.begin(SwipeTrace.REVEAL);
         int moveTo = 0;
-        if (opened.get(position)) {
+        if (rowStates.isOpened(position)) {
             if (!swap) {
-                moveTo = openedRight.get(position) ? (int) (viewWidth - rightOffset) : (int) (-viewWidth + leftOffset);
+                moveTo = rowStates.isOpenedRight(position) ? (int) (viewWidth - rightOffsetAt(position)) : (int) (-viewWidth + leftOffsetAt(position));
             }
         } else {
             if (swap) {
-                moveTo = swapRight ? (int) (viewWidth - rightOffset) : (int) (-viewWidth + leftOffset);
+                moveTo = swapRight ? (int) (viewWidth - rightOffsetAt(position)) : (int) (-viewWidth + leftOffsetAt(position));
             }
         }
 
-        animate(view)
-                .translationX(moveTo)
-                .setDuration(animationTime)
-                .setListener(new AnimatorListenerAdapter() {
-                    @Override
-                    public void onAnimationEnd(Animator animation) {
-                        swipeListView.resetScrolling();
-                        if (swap) {
-                            boolean aux = !opened.get(position);
-                            opened.set(position, aux);
-                            if (aux) {
-                                swipeListView.onOpened(position, swapRight);
-                                openedRight.set(position, swapRight);
-                            } else {
-                                swipeListView.onClosed(position, openedRight.get(position));
-                            }
-                        }
-                        resetCell();
-                    }
-                });
+        animateTo(view, moveTo, Float.NaN, obtainCallback(SwipeListView.SWIPE_ACTION_REVEAL, view, swap, swapRight, position, 0));
+        SwipeTrace.end();
+    }
+
+    /**
+     * Starts moving a view to its final position. In fling mode a row just released keeps the
+     * release speed and decelerates, so fast flings settle sooner than the fixed animation time
+     *
+     * @param view     affected view
+     * @param moveTo   final translation
+     * @param alpha    final alpha, or NaN to leave it
+     * @param listener end listener
+     */
+    private void animateTo(View view, int moveTo, float alpha, AnimationCallback listener) {
+        beginRender(view);
+        showBackView(listener.holder);
+        long duration = animationTime;
+        Interpolator interpolator = fixedInterpolator;
+        if (animationMode == SwipeListView.SWIPE_ANIMATION_FLING) {
+            long flingDuration = flingDuration(swipeAnimator.getTranslationX(view), moveTo);
+            if (flingDuration > 0) {
+                duration = flingDuration;
+                interpolator = flingInterpolator;
+            }
+        }
+        swipeAnimator.animate(view, moveTo, alpha, duration, interpolator, listener);
+        if (!drawnBackActions.isEmpty()) {
+            swipeListView.invalidate();
+        }
+    }
+
+    /**
+     * Duration of a decelerated move that starts at the release velocity. The decelerate curve
+     * starts at twice the average speed, so it takes 2 * distance / velocity
+     *
+     * @param from current translation
+     * @param to   final translation
+     * @return milliseconds, or 0 if there is no release velocity toward the final position
+     */
+    private long flingDuration(float from, float to) {
+        float distance = to - from;
+        if (releaseVelocityX == 0 || distance == 0 || (distance > 0) != (releaseVelocityX > 0)) {
+            return 0;
+        }
+        long duration = (long) (2000 * Math.abs(distance) / Math.abs(releaseVelocityX));
+        return Math.max(MIN_FLING_DURATION, Math.min(duration, animationTime));
+    }
+
+    /**
+     * Ends a choice animation
+     *
+     * @param holder   row holder, or null if the row left the list
+     * @param position list position
+     */
+    private void onChoiceAnimationEnd(SwipeViewHolder holder, int position) {
+        swipeListView.resetScrolling();
+        resetCell();
+        releaseBackView(holder);
+        syncBackView(holder, position);
+    }
+
+    /**
+     * Ends a dismiss animation
+     *
+     * @param view       affected view
+     * @param holder     row holder, or null if the row left the list
+     * @param swap       If the row was dismissed
+     * @param position   Position of list
+     * @param generation dismiss transaction the animation belongs to
+     */
+    private void onDismissAnimationEnd(View view, SwipeViewHolder holder, boolean swap, int position, int generation) {
+        if (swap) {
+            if (dismissTransaction.isCurrent(generation)) {
+                closeOpenedItems();
+                performDismiss(view, position);
+            }
+            dismissTransaction.end(generation);
+        } else {
+            releaseBackView(holder);
+            syncBackView(holder, position);
+        }
+        resetCell();
+    }
+
+    /**
+     * Ends a reveal animation
+     *
+     * @param view      affected view
+     * @param holder    row holder, or null if the row left the list
+     * @param swap      If state changed
+     * @param swapRight If swap is true, tells if movement was toward right or left
+     * @param position  list position
+     */
+    private void onRevealAnimationEnd(View view, SwipeViewHolder holder, boolean swap, boolean swapRight, int position) {
+        SwipeTrace.begin(SwipeTrace.REVEAL);
+        swipeListView.resetScrolling();
+        if (swap) {
+            boolean aux = !rowStates.isOpened(position);
+            boolean openedRight = rowStates.isOpenedRight(position);
+            rowStates.setOpened(position, aux);
+            if (aux) {
+                swipeListView.onOpened(position, swapRight);
+                rowStates.setOpenedRight(position, swapRight);
+            } else {
+                swipeListView.onClosed(position, openedRight);
+            }
+        }
+        resetCell();
+        if (!rowStates.isOpened(position)) {
+            releaseBackView(holder);
+        } else if (holder != null) {
+            BackViewClip.set(holder.backView, view, swipeAnimator.getTranslationX(view));
+        }
+        syncBackView(holder, position);
+        SwipeTrace.end();
+    }
+
+    /**
+     * Holder of a row, created the first time the row is seen. Before API 14 keyed tags are kept
+     * in a static map that would hold the rows forever, so the holders are kept by the listener and
+     * live as long as the list
+     *
+     * @param row row view, child of the list
+     * @return holder
+     */
+    SwipeViewHolder holderOf(View row) {
+        SwipeViewHolder holder;
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.ICE_CREAM_SANDWICH) {
+            holder = (SwipeViewHolder) row.getTag(R.id.swipelist_view_holder);
+        } else {
+            if (legacyHolders == null) {
+                legacyHolders = new WeakHashMap<View, SwipeViewHolder>();
+            }
+            holder = legacyHolders.get(row);
+        }
+        if (holder == null) {
+            holder = new SwipeViewHolder(row, row.findViewById(swipeFrontView),
+                    swipeBackView > 0 ? row.findViewById(swipeBackView) : null);
+            if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.ICE_CREAM_SANDWICH) {
+                row.setTag(R.id.swipelist_view_holder, holder);
+            } else {
+                legacyHolders.put(row, holder);
+            }
+        }
+        return holder;
+    }
+
+    /**
+     * Holder of the row on screen at a position
+     *
+     * @param position position in list
+     * @return holder, or null if the row is not on screen
+     */
+    private SwipeViewHolder holderAt(int position) {
+        View row = swipeListView.getChildAt(position - swipeListView.getFirstVisiblePosition());
+        return row != null ? holderOf(row) : null;
+    }
+
+    /**
+     * Inflates the back view of a row if it was declared as a ViewStub, and has the adapter bind it
+     *
+     * @param holder   row holder
+     * @param position position in list
+     * @return true if the back view was inflated or taken from the pool
+     */
+    private boolean inflateBackView(SwipeViewHolder holder, int position) {
+        View backView = holder.backView;
+        View inflated = lazyBackViews.inflate(holder);
+        if (holder.row == parentView && inflated != null) {
+            setBackView(inflated);
+        }
+        if (inflated == backView) {
+            return false;
+        }
+        swipeListView.onBindBackView(holder.row, inflated, position);
+        return true;
+    }
+
+    /**
+     * Gives the lazily inflated back view of a closed row back to the pool. The row being
+     * swiped keeps it
+     *
+     * @param holder row holder, or null if the row left the list
+     */
+    private void releaseBackView(SwipeViewHolder holder) {
+        if (holder != null && !(swiping && holder.row == parentView)) {
+            lazyBackViews.release(holder);
+        }
+    }
+
+    /**
+     * Restores the state of a row being bound: its choice background, and its front view open or
+     * closed right away, without animating. A closed row gives back its lazily inflated back view,
+     * an open one has it bound again for its new position. Rows being swiped or animated are left
+     * to the gesture or the animation
+     *
+     * @param convertView row view
+     * @param position    position in list
+     */
+    void recycle(View convertView, int position) {
+        SwipeViewHolder holder = holderOf(convertView);
+        reloadChoiceStateInView(holder.frontView, position);
+        if (holder.isAnimating() || (holder.row == parentView && downPosition != ListView.INVALID_POSITION)) {
+            return;
+        }
+        boolean opened = rowStates.isOpened(position);
+        if (holder.frontView != null) {
+            float translationX = 0;
+            if (opened) {
+                int width = viewWidth < 2 ? swipeListView.getWidth() : viewWidth;
+                translationX = rowStates.isOpenedRight(position) ? (int) (width - rightOffsetAt(position)) : (int) (-width + leftOffsetAt(position));
+            }
+            if (swipeAnimator.getTranslationX(holder.frontView) != translationX) {
+                swipeAnimator.setTranslationX(holder.frontView, translationX);
+            }
+        }
+        if (opened) {
+            if (!inflateBackView(holder, position) && LazyBackViews.isLazy(holder.backView)) {
+                swipeListView.onBindBackView(holder.row, holder.backView, position);
+            }
+            BackViewClip.set(holder.backView, holder.frontView, swipeAnimator.getTranslationX(holder.frontView));
+        } else {
+            lazyBackViews.release(holder);
+        }
+        syncBackView(holder, position);
+    }
+
+    /**
+     * Takes an animation callback from the pool
+     *
+     * @param action     SWIPE_ACTION_CHOICE, SWIPE_ACTION_DISMISS or SWIPE_ACTION_REVEAL
+     * @param view       affected view
+     * @param swap       If state changes
+     * @param swapRight  If swap is true, tells if movement is toward right or left
+     * @param position   list position
+     * @param generation dismiss transaction, for dismiss animations
+     * @return callback, handed back to the pool when the animation ends
+     */
+    private AnimationCallback obtainCallback(int action, View view, boolean swap, boolean swapRight, int position, int generation) {
+        for (int i = runningCallbacks.size() - 1; i >= 0; i--) {
+            AnimationCallback replaced = runningCallbacks.get(i);
+            if (replaced.view == view) {
+                runningCallbacks.remove(i);
+                replaced.replace();
+            }
+        }
+        View row = LazyBackViews.rowOf(swipeListView, view);
+        int size = callbackPool.size();
+        AnimationCallback callback = size > 0 ? callbackPool.remove(size - 1) : new AnimationCallback();
+        callback.action = action;
+        callback.view = view;
+        callback.swap = swap;
+        callback.swapRight = swapRight;
+        callback.position = position;
+        callback.generation = generation;
+        callback.holder = row != null ? holderOf(row) : null;
+        callback.active = true;
+        callback.measured = measureRelease;
+        measureRelease = false;
+        if (callback.holder != null) {
+            callback.holder.animation = callback;
+        }
+        runningCallbacks.add(callback);
+        return callback;
+    }
+
+    /**
+     * Posts the pending move to the next frame. Loaded only on API 16 and later
+     */
+    private static class FrameSync implements Choreographer.FrameCallback {
+
+        private final SwipeListViewTouchListener touchListener;
+
+        FrameSync(SwipeListViewTouchListener touchListener) {
+            this.touchListener = touchListener;
+        }
+
+        void schedule() {
+            Choreographer.getInstance().postFrameCallback(this);
+        }
+
+        void cancel() {
+            Choreographer.getInstance().removeFrameCallback(this);
+        }
+
+        @Override
+        public void doFrame(long frameTimeNanos) {
+            touchListener.onFrame();
+        }
+    }
+
+    /**
+     * Animation end callback, pooled so the swipe, reveal and choice animations don't allocate a
+     * listener each. A dismiss still allocates its collapse state and animator in
+     * DismissTransaction.collapse, once per dismissed row. A callback replaced by a newer
+     * animation on the same view is made inactive, and only goes back to the pool once the backend
+     * reports the end of its cancelled animation, so that stale end can never reach the newer
+     * animation
+     */
+    private class AnimationCallback extends SwipeAnimator.EndListener {
+        int action;
+        View view;
+        SwipeViewHolder holder;
+        boolean swap;
+        boolean swapRight;
+        int position;
+        int generation;
+        boolean active;
+        boolean replaced;
+        boolean measured;
+
+        @Override
+        void onAnimationEnd() {
+            if (!active) {
+                if (replaced) {
+                    replaced = false;
+                    callbackPool.add(this);
+                }
+                return;
+            }
+            if (measured && metricsTracker != null) {
+                metricsTracker.onAnimationEnd();
+            }
+            View view = this.view;
+            SwipeViewHolder holder = this.holder;
+            runningCallbacks.remove(this);
+            release();
+            if (!drawnBackActions.isEmpty()) {
+                swipeListView.invalidate();
+            }
+            endRender(view);
+            if (action == SwipeListView.SWIPE_ACTION_CHOICE) {
+                onChoiceAnimationEnd(holder, position);
+            } else if (action == SwipeListView.SWIPE_ACTION_DISMISS) {
+                onDismissAnimationEnd(view, holder, swap, position, generation);
+            } else {
+                onRevealAnimationEnd(view, holder, swap, swapRight, position);
+            }
+        }
+
+        /**
+         * Clears the callback, and the animation of its row, and hands it back to the pool
+         */
+        void release() {
+            clear();
+            callbackPool.add(this);
+        }
+
+        /**
+         * Ignores the end of an animation replaced by a newer one on the same view. A dismiss it
+         * had registered is abandoned, so the transaction does not wait for it, and so is the
+         * measurement of a release animation
+         */
+        void replace() {
+            if (action == SwipeListView.SWIPE_ACTION_DISMISS && swap) {
+                dismissTransaction.end(generation);
+            }
+            if (measured && metricsTracker != null) {
+                metricsTracker.onAnimationReplaced();
+            }
+            clear();
+            replaced = true;
+        }
+
+        private void clear() {
+            active = false;
+            measured = false;
+            if (holder != null && holder.animation == this) {
+                holder.animation = null;
+            }
+            view = null;
+            holder = null;
+        }
     }
 
     private void resetCell() {
         if (downPosition != ListView.INVALID_POSITION) {
             if (swipeCurrentAction == SwipeListView.SWIPE_ACTION_CHOICE) {
-                backView.setVisibility(View.VISIBLE);
+                setBackViewVisibility(View.VISIBLE);
             }
-            frontView.setClickable(opened.get(downPosition));
-            frontView.setLongClickable(opened.get(downPosition));
+            int position = downPosition;
+            frontView.setClickable(rowStates.isOpened(downPosition));
+            frontView.setLongClickable(rowStates.isOpened(downPosition));
             frontView = null;
             backView = null;
             downPosition = ListView.INVALID_POSITION;
+            syncBackView(holderOf(parentView), position);
+        }
+    }
+
+    /**
+     * Shows the back view of a row only while it can be seen: during a swipe or an animation, or
+     * while the row is open. Fully closed rows keep it INVISIBLE, so they draw a single layer.
+     * Back views set GONE or not inflated yet are left alone, and so is the row being swiped
+     *
+     * @param holder   row holder, or null if the row left the list
+     * @param position position in list
+     */
+    private void syncBackView(SwipeViewHolder holder, int position) {
+        if (holder == null || (holder.row == parentView && downPosition != ListView.INVALID_POSITION)) {
+            return;
+        }
+        View back = holder.backView;
+        if (back == null || back instanceof ViewStub || back.getVisibility() == View.GONE) {
+            return;
+        }
+        boolean animating = holder.isAnimating();
+        int visibility = rowStates.isOpened(position) || animating ? View.VISIBLE : View.INVISIBLE;
+        if (back.getVisibility() != visibility) {
+            back.setVisibility(visibility);
+            if (visibility == View.VISIBLE && !animating) {
+                View front = holder.frontView;
+                BackViewClip.set(back, front, front != null ? swipeAnimator.getTranslationX(front) : 0);
+            }
+        }
+    }
+
+    /**
+     * Shows the back view of a row that starts animating. It is not clipped during the animation,
+     * as the animation does not report its frames
+     *
+     * @param holder row holder, or null if the row left the list
+     */
+    private void showBackView(SwipeViewHolder holder) {
+        View back = holder != null ? holder.backView : null;
+        if (back != null && !(back instanceof ViewStub) && back.getVisibility() != View.GONE) {
+            back.setVisibility(View.VISIBLE);
+            BackViewClip.clear(back);
+        }
+    }
+
+    /**
+     * Syncs the back view visibility of the rows on screen, called when the list scrolls or lays
+     * out its children
+     */
+    void updateBackViews() {
+        if (swipeBackView <= 0) {
+            return;
+        }
+        int first = swipeListView.getFirstVisiblePosition();
+        int childCount = swipeListView.getChildCount();
+        for (int i = 0; i < childCount; i++) {
+            syncBackView(holderOf(swipeListView.getChildAt(i)), first + i);
         }
     }
 
@@ -676,19 +1629,21 @@ public class SwipeListViewTouchListener implements View.OnTouchListener {
     }
 
     /**
-     * Close all opened items
+     * Close all opened items. The visible ones are animated, the ones scrolled off-screen are
+     * closed in the row states without callbacks
      */
     void closeOpenedItems() {
-        if (opened != null) {
-            int start = swipeListView.getFirstVisiblePosition();
-            int end = swipeListView.getLastVisiblePosition();
-            for (int i = start; i <= end; i++) {
-                if (opened.get(i)) {
-                    closeAnimate(swipeListView.getChildAt(i - start).findViewById(swipeFrontView), i);
-                }
+        if (rowStates.getOpenedCount() == 0) {
+            return;
+        }
+        int start = swipeListView.getFirstVisiblePosition();
+        int end = swipeListView.getLastVisiblePosition();
+        rowStates.closeOpenedOutside(start, end);
+        for (int i = start; i <= end; i++) {
+            if (rowStates.isOpened(i)) {
+                closeAnimate(holderOf(swipeListView.getChildAt(i - start)).frontView, i);
             }
         }
-
     }
 
     /**
@@ -710,38 +1665,45 @@ public class SwipeListViewTouchListener implements View.OnTouchListener {
                     return false;
                 }
                 swipeCurrentAction = SwipeListView.SWIPE_ACTION_NONE;
+                pressedBackAction = null;
 
-                int childCount = swipeListView.getChildCount();
-                int[] listViewCoords = new int[2];
-                swipeListView.getLocationOnScreen(listViewCoords);
-                int x = (int) motionEvent.getRawX() - listViewCoords[0];
-                int y = (int) motionEvent.getRawY() - listViewCoords[1];
-                View child;
-                for (int i = 0; i < childCount; i++) {
-                    child = swipeListView.getChildAt(i);
-                    child.getHitRect(rect);
-
-                    int childPosition = swipeListView.getPositionForView(child);
+                SwipeTrace.begin(SwipeTrace.HIT_TEST);
+                int childIndex = findChildIndexUnder((int) motionEvent.getX(), (int) motionEvent.getY());
+                SwipeTrace.end();
+                if (childIndex >= 0) {
+                    View child = swipeListView.getChildAt(childIndex);
+                    int childPosition = swipeListView.getFirstVisiblePosition() + childIndex;
+                    ListAdapter adapter = swipeListView.getAdapter();
 
                     // dont allow swiping if this is on the header or footer or IGNORE_ITEM_VIEW_TYPE or enabled is false on the adapter
-                    boolean allowSwipe = swipeListView.getAdapter().isEnabled(childPosition) && swipeListView.getAdapter().getItemViewType(childPosition) >= 0;
+                    boolean allowSwipe = adapter.isEnabled(childPosition) && adapter.getItemViewType(childPosition) >= 0;
 
-                    if (allowSwipe && rect.contains(x, y)) {
+                    if (allowSwipe) {
                         setParentView(child);
-                        setFrontView(child.findViewById(swipeFrontView));
+                        SwipeViewHolder holder = holderOf(child);
+                        setFrontView(holder.frontView);
 
                         downX = motionEvent.getRawX();
                         downPosition = childPosition;
 
-                        frontView.setClickable(!opened.get(downPosition));
-                        frontView.setLongClickable(!opened.get(downPosition));
+                        frontView.setClickable(!rowStates.isOpened(downPosition));
+                        frontView.setLongClickable(!rowStates.isOpened(downPosition));
 
-                        velocityTracker = VelocityTracker.obtain();
-                        velocityTracker.addMovement(motionEvent);
-                        if (swipeBackView > 0) {
-                            setBackView(child.findViewById(swipeBackView));
+                        resolveRowPolicy(childPosition);
+                        tracking = rowPolicy.mode != SwipeListView.SWIPE_MODE_NONE;
+                        if (tracking) {
+                            velocityEstimator.clear();
+                            addMovement(motionEvent);
+                            if (metricsTracker != null) {
+                                metricsTracker.onDown(motionEvent.getEventTime(), childPosition);
+                            }
+                        }
+                        setBackView(holder.backView);
+                        if (rowStates.isOpened(childPosition) && !drawnBackActions.isEmpty()) {
+                            drawnBackActions.layout(child, frontView, swipeAnimator.getTranslationX(frontView));
+                            pressedBackAction = drawnBackActions.actionAt((int) motionEvent.getX(), (int) motionEvent.getY(), pressedBackActionBounds);
+                            pressedBackActionBounds.inset(-slop, -slop);
                         }
-                        break;
                     }
                 }
                 view.onTouchEvent(motionEvent);
@@ -749,81 +1711,101 @@ public class SwipeListViewTouchListener implements View.OnTouchListener {
             }
 
             case MotionEvent.ACTION_UP: {
-                if (velocityTracker == null || !swiping || downPosition == ListView.INVALID_POSITION) {
+                flushMove();
+                if (!tracking || !swiping || downPosition == ListView.INVALID_POSITION) {
+                    if (metricsTracker != null) {
+                        metricsTracker.cancel();
+                    }
+                    if (pressedBackAction != null && !swiping && !listViewMoving && downPosition != ListView.INVALID_POSITION
+                            && pressedBackActionBounds.contains((int) motionEvent.getX(), (int) motionEvent.getY())) {
+                        swipeListView.onClickBackAction(downPosition, pressedBackAction.getId());
+                        swipeListView.onClickBackView(downPosition);
+                    }
+                    pressedBackAction = null;
                     break;
                 }
 
                 float deltaX = motionEvent.getRawX() - downX;
-                velocityTracker.addMovement(motionEvent);
-                velocityTracker.computeCurrentVelocity(1000);
-                float velocityX = Math.abs(velocityTracker.getXVelocity());
-                if (!opened.get(downPosition)) {
-                    if (swipeMode == SwipeListView.SWIPE_MODE_LEFT && velocityTracker.getXVelocity() > 0) {
+                addMovement(motionEvent);
+                velocityEstimator.computeVelocity(1000);
+                float releaseVelocityX = velocityEstimator.getXVelocity();
+                float velocityX = Math.abs(releaseVelocityX);
+                if (!rowStates.isOpened(downPosition)) {
+                    if (rowPolicy.mode == SwipeListView.SWIPE_MODE_LEFT && releaseVelocityX > 0) {
                         velocityX = 0;
                     }
-                    if (swipeMode == SwipeListView.SWIPE_MODE_RIGHT && velocityTracker.getXVelocity() < 0) {
+                    if (rowPolicy.mode == SwipeListView.SWIPE_MODE_RIGHT && releaseVelocityX < 0) {
                         velocityX = 0;
                     }
                 }
-                float velocityY = Math.abs(velocityTracker.getYVelocity());
+                float velocityY = Math.abs(velocityEstimator.getYVelocity());
                 boolean swap = false;
                 boolean swapRight = false;
                 if (minFlingVelocity <= velocityX && velocityX <= maxFlingVelocity && velocityY * 2 < velocityX) {
-                    swapRight = velocityTracker.getXVelocity() > 0;
-                    Log.d("SwipeListView", "swapRight: " + swapRight + " - swipingRight: " + swipingRight);
-                    if (swapRight != swipingRight && swipeActionLeft != swipeActionRight) {
+                    swapRight = releaseVelocityX > 0;
+                    if (logger != null) {
+                        logger.log("swapRight: " + swapRight + " - swipingRight: " + swipingRight);
+                    }
+                    if (swapRight != swipingRight && rowPolicy.actionLeft != rowPolicy.actionRight) {
                         swap = false;
-                    } else if (opened.get(downPosition) && openedRight.get(downPosition) && swapRight) {
+                    } else if (rowStates.isOpened(downPosition) && rowStates.isOpenedRight(downPosition) && swapRight) {
                         swap = false;
-                    } else if (opened.get(downPosition) && !openedRight.get(downPosition) && !swapRight) {
+                    } else if (rowStates.isOpened(downPosition) && !rowStates.isOpenedRight(downPosition) && !swapRight) {
                         swap = false;
                     } else {
                         swap = true;
                     }
-                } else if (Math.abs(deltaX) > viewWidth / 2) {
+                } else if (Math.abs(deltaX) > viewWidth * rowPolicy.swapThreshold) {
                     swap = true;
                     swapRight = deltaX > 0;
                 }
+                if (metricsTracker != null) {
+                    metricsTracker.onRelease(swipeCurrentAction);
+                }
+                this.releaseVelocityX = releaseVelocityX;
+                measureRelease = metricsTracker != null;
                 generateAnimate(frontView, swap, swapRight, downPosition);
+                measureRelease = false;
+                this.releaseVelocityX = 0;
+                View animatedView = swipeCurrentAction == SwipeListView.SWIPE_ACTION_DISMISS ? parentView
+                        : swipeCurrentAction == SwipeListView.SWIPE_ACTION_NONE ? null : frontView;
+                if (layeredView != animatedView) {
+                    endRender(layeredView);
+                }
+                layeredView = null;
                 if (swipeCurrentAction == SwipeListView.SWIPE_ACTION_CHOICE) {
                     swapChoiceState(downPosition);
                 }
 
-                velocityTracker.recycle();
-                velocityTracker = null;
+                tracking = false;
                 downX = 0;
                 // change clickable front view
 //                if (swap) {
-//                    frontView.setClickable(opened.get(downPosition));
-//                    frontView.setLongClickable(opened.get(downPosition));
+//                    frontView.setClickable(rowStates.isOpened(downPosition));
+//                    frontView.setLongClickable(rowStates.isOpened(downPosition));
 //                }
                 swiping = false;
                 break;
             }
 
             case MotionEvent.ACTION_MOVE: {
-                if (velocityTracker == null || paused || downPosition == ListView.INVALID_POSITION) {
+                if (!tracking || paused || downPosition == ListView.INVALID_POSITION) {
                     break;
                 }
+                if (metricsTracker != null) {
+                    metricsTracker.onMove();
+                }
 
-                velocityTracker.addMovement(motionEvent);
-                velocityTracker.computeCurrentVelocity(1000);
-                float velocityX = Math.abs(velocityTracker.getXVelocity());
-                float velocityY = Math.abs(velocityTracker.getYVelocity());
+                addMovement(motionEvent);
 
                 float deltaX = motionEvent.getRawX() - downX;
                 float deltaMode = Math.abs(deltaX);
 
-                int swipeMode = this.swipeMode;
-                int changeSwipeMode = swipeListView.changeSwipeMode(downPosition);
-                if (changeSwipeMode >= 0) {
-                    swipeMode = changeSwipeMode;
-                }
-
+                int swipeMode = rowPolicy.mode;
                 if (swipeMode == SwipeListView.SWIPE_MODE_NONE) {
                     deltaMode = 0;
                 } else if (swipeMode != SwipeListView.SWIPE_MODE_BOTH) {
-                    if (opened.get(downPosition)) {
+                    if (rowStates.isOpened(downPosition)) {
                         if (swipeMode == SwipeListView.SWIPE_MODE_LEFT && deltaX < 0) {
                             deltaMode = 0;
                         } else if (swipeMode == SwipeListView.SWIPE_MODE_RIGHT && deltaX > 0) {
@@ -837,21 +1819,24 @@ public class SwipeListViewTouchListener implements View.OnTouchListener {
                         }
                     }
                 }
-                if (deltaMode > slop && swipeCurrentAction == SwipeListView.SWIPE_ACTION_NONE && velocityY < velocityX) {
+                if (deltaMode > slop && swipeCurrentAction == SwipeListView.SWIPE_ACTION_NONE && isHorizontalSwipe()) {
+                    SwipeTrace.begin(SwipeTrace.SWIPE_START);
                     swiping = true;
                     swipingRight = (deltaX > 0);
-                    Log.d("SwipeListView", "deltaX: " + deltaX + " - swipingRight: " + swipingRight);
-                    if (opened.get(downPosition)) {
+                    if (logger != null) {
+                        logger.log("deltaX: " + deltaX + " - swipingRight: " + swipingRight);
+                    }
+                    if (rowStates.isOpened(downPosition)) {
                         swipeListView.onStartClose(downPosition, swipingRight);
                         swipeCurrentAction = SwipeListView.SWIPE_ACTION_REVEAL;
                     } else {
-                        if (swipingRight && swipeActionRight == SwipeListView.SWIPE_ACTION_DISMISS) {
+                        if (swipingRight && rowPolicy.actionRight == SwipeListView.SWIPE_ACTION_DISMISS) {
                             swipeCurrentAction = SwipeListView.SWIPE_ACTION_DISMISS;
-                        } else if (!swipingRight && swipeActionLeft == SwipeListView.SWIPE_ACTION_DISMISS) {
+                        } else if (!swipingRight && rowPolicy.actionLeft == SwipeListView.SWIPE_ACTION_DISMISS) {
                             swipeCurrentAction = SwipeListView.SWIPE_ACTION_DISMISS;
-                        } else if (swipingRight && swipeActionRight == SwipeListView.SWIPE_ACTION_CHOICE) {
+                        } else if (swipingRight && rowPolicy.actionRight == SwipeListView.SWIPE_ACTION_CHOICE) {
                             swipeCurrentAction = SwipeListView.SWIPE_ACTION_CHOICE;
-                        } else if (!swipingRight && swipeActionLeft == SwipeListView.SWIPE_ACTION_CHOICE) {
+                        } else if (!swipingRight && rowPolicy.actionLeft == SwipeListView.SWIPE_ACTION_CHOICE) {
                             swipeCurrentAction = SwipeListView.SWIPE_ACTION_CHOICE;
                         } else {
                             swipeCurrentAction = SwipeListView.SWIPE_ACTION_REVEAL;
@@ -859,20 +1844,26 @@ public class SwipeListViewTouchListener implements View.OnTouchListener {
                         swipeListView.onStartOpen(downPosition, swipeCurrentAction, swipingRight);
                     }
                     swipeListView.requestDisallowInterceptTouchEvent(true);
-                    MotionEvent cancelEvent = MotionEvent.obtain(motionEvent);
-                    cancelEvent.setAction(MotionEvent.ACTION_CANCEL |
+                    inflateBackView(holderOf(parentView), downPosition);
+                    int action = motionEvent.getAction();
+                    motionEvent.setAction(MotionEvent.ACTION_CANCEL |
                             (MotionEventCompat.getActionIndex(motionEvent) << MotionEventCompat.ACTION_POINTER_INDEX_SHIFT));
-                    swipeListView.onTouchEvent(cancelEvent);
+                    swipeListView.onTouchEvent(motionEvent);
+                    motionEvent.setAction(action);
+                    setBackViewVisibility(View.VISIBLE);
                     if (swipeCurrentAction == SwipeListView.SWIPE_ACTION_CHOICE) {
-                        backView.setVisibility(View.GONE);
+                        setBackViewVisibility(View.GONE);
                     }
+                    layeredView = swipeCurrentAction == SwipeListView.SWIPE_ACTION_DISMISS ? parentView : frontView;
+                    beginRender(layeredView);
+                    SwipeTrace.end();
                 }
 
                 if (swiping && downPosition != ListView.INVALID_POSITION) {
-                    if (opened.get(downPosition)) {
-                        deltaX += openedRight.get(downPosition) ? viewWidth - rightOffset : -viewWidth + leftOffset;
+                    if (rowStates.isOpened(downPosition)) {
+                        deltaX += rowStates.isOpenedRight(downPosition) ? viewWidth - rowPolicy.rightOffset : -viewWidth + rowPolicy.leftOffset;
                     }
-                    move(deltaX);
+                    requestMove(deltaX);
                     return true;
                 }
                 break;
@@ -893,70 +1884,113 @@ public class SwipeListViewTouchListener implements View.OnTouchListener {
         swipeActionLeft = oldSwipeActionLeft;
     }
 
+    /**
+     * Feeds the velocity estimator with an event and its batched positions
+     *
+     * @param motionEvent event
+     */
+    private void addMovement(MotionEvent motionEvent) {
+        int historySize = motionEvent.getHistorySize();
+        for (int i = 0; i < historySize; i++) {
+            velocityEstimator.addMovement(motionEvent.getHistoricalEventTime(i), motionEvent.getHistoricalX(i), motionEvent.getHistoricalY(i));
+        }
+        velocityEstimator.addMovement(motionEvent.getEventTime(), motionEvent.getX(), motionEvent.getY());
+    }
+
+    /**
+     * Computes the velocity, only once the pointer moved past the slop
+     *
+     * @return true if the pointer moves faster horizontally than vertically
+     */
+    private boolean isHorizontalSwipe() {
+        velocityEstimator.computeVelocity(1000);
+        return Math.abs(velocityEstimator.getYVelocity()) < Math.abs(velocityEstimator.getXVelocity());
+    }
+
+    /**
+     * Finds the child under a point. Children are laid out top to bottom, so they are binary
+     * searched by their bottom edge, then only the candidate is checked against its hit rect
+     *
+     * @param x x in list coordinates
+     * @param y y in list coordinates
+     * @return index of the child, or -1 if there is none
+     */
+    private int findChildIndexUnder(int x, int y) {
+        int low = 0;
+        int high = swipeListView.getChildCount() - 1;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (swipeListView.getChildAt(mid).getBottom() <= y) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        if (high < 0) {
+            return -1;
+        }
+        swipeListView.getChildAt(low).getHitRect(rect);
+        return rect.contains(x, y) ? low : -1;
+    }
+
     /**
      * Moves the view
      *
      * @param deltaX delta
      */
     public void move(float deltaX) {
+        SwipeTrace.begin(SwipeTrace.MOVE);
         swipeListView.onMove(downPosition, deltaX);
-        float posX = ViewHelper.getX(frontView);
-        if (opened.get(downPosition)) {
-            posX += openedRight.get(downPosition) ? -viewWidth + rightOffset : viewWidth - leftOffset;
+        float posX = frontView.getLeft() + swipeAnimator.getTranslationX(frontView);
+        if (rowStates.isOpened(downPosition)) {
+            posX += rowStates.isOpenedRight(downPosition) ? -viewWidth + rowPolicy.rightOffset : viewWidth - rowPolicy.leftOffset;
         }
         if (posX > 0 && !swipingRight) {
-            Log.d("SwipeListView", "change to right");
+            if (logger != null) {
+                logger.log("change to right");
+            }
             swipingRight = !swipingRight;
-            swipeCurrentAction = swipeActionRight;
+            swipeCurrentAction = rowPolicy.actionRight;
             if (swipeCurrentAction == SwipeListView.SWIPE_ACTION_CHOICE) {
-                backView.setVisibility(View.GONE);
+                setBackViewVisibility(View.GONE);
             } else {
-                backView.setVisibility(View.VISIBLE);
+                setBackViewVisibility(View.VISIBLE);
             }
         }
         if (posX < 0 && swipingRight) {
-            Log.d("SwipeListView", "change to left");
+            if (logger != null) {
+                logger.log("change to left");
+            }
             swipingRight = !swipingRight;
-            swipeCurrentAction = swipeActionLeft;
+            swipeCurrentAction = rowPolicy.actionLeft;
             if (swipeCurrentAction == SwipeListView.SWIPE_ACTION_CHOICE) {
-                backView.setVisibility(View.GONE);
+                setBackViewVisibility(View.GONE);
             } else {
-                backView.setVisibility(View.VISIBLE);
+                setBackViewVisibility(View.VISIBLE);
             }
         }
         if (swipeCurrentAction == SwipeListView.SWIPE_ACTION_DISMISS) {
-            setTranslationX(parentView, deltaX);
-            setAlpha(parentView, Math.max(0f, Math.min(1f,
+            swipeAnimator.setTranslationX(parentView, deltaX);
+            swipeAnimator.setAlpha(parentView, Math.max(0f, Math.min(1f,
                     1f - 2f * Math.abs(deltaX) / viewWidth)));
         } else if (swipeCurrentAction == SwipeListView.SWIPE_ACTION_CHOICE) {
             if ((swipingRight && deltaX > 0 && posX < DISPLACE_CHOICE)
                     || (!swipingRight && deltaX < 0 && posX > -DISPLACE_CHOICE)
                     || (swipingRight && deltaX < DISPLACE_CHOICE)
                     || (!swipingRight && deltaX > -DISPLACE_CHOICE)) {
-                setTranslationX(frontView, deltaX);
+                swipeAnimator.setTranslationX(frontView, deltaX);
             }
         } else {
-            setTranslationX(frontView, deltaX);
+            swipeAnimator.setTranslationX(frontView, deltaX);
         }
-    }
-
-    /**
-     * Class that saves pending dismiss data
-     */
-    class PendingDismissData implements Comparable<PendingDismissData> {
-        public int position;
-        public View view;
-
-        public PendingDismissData(int position, View view) {
-            this.position = position;
-            this.view = view;
+        BackViewClip.set(backView, frontView, swipeAnimator.getTranslationX(frontView));
+        if (!drawnBackActions.isEmpty()) {
+            swipeListView.invalidate();
         }
-
-        @Override
-        public int compareTo(PendingDismissData other) {
-            // Sort by descending position
-            return other.position - position;
+        if (metricsTracker != null) {
+            metricsTracker.onTranslated();
         }
+        SwipeTrace.end();
     }
 
     /**
@@ -965,75 +1999,8 @@ public class SwipeListViewTouchListener implements View.OnTouchListener {
      * @param dismissView     View
      * @param dismissPosition Position of list
      */
-    protected void performDismiss(final View dismissView, final int dismissPosition, boolean doPendingDismiss) {
-        final ViewGroup.LayoutParams lp = dismissView.getLayoutParams();
-        final int originalHeight = dismissView.getHeight();
-
-        ValueAnimator animator = ValueAnimator.ofInt(originalHeight, 1).setDuration(animationTime);
-
-        if (doPendingDismiss) {
-            animator.addListener(new AnimatorListenerAdapter() {
-                @Override
-                public void onAnimationEnd(Animator animation) {
-                    --dismissAnimationRefCount;
-                    if (dismissAnimationRefCount == 0) {
-                        removePendingDismisses(originalHeight);
-                    }
-                }
-            });
-        }
-
-        animator.addUpdateListener(new ValueAnimator.AnimatorUpdateListener() {
-            @Override
-            public void onAnimationUpdate(ValueAnimator valueAnimator) {
-                lp.height = (Integer) valueAnimator.getAnimatedValue();
-                dismissView.setLayoutParams(lp);
-            }
-        });
-
-        pendingDismisses.add(new PendingDismissData(dismissPosition, dismissView));
-        animator.start();
-    }
-
-    protected void resetPendingDismisses() {
-        pendingDismisses.clear();
-    }
-
-    protected void handlerPendingDismisses(final int originalHeight) {
-        Handler handler = new Handler();
-        handler.postDelayed(new Runnable() {
-            @Override
-            public void run() {
-                removePendingDismisses(originalHeight);
-            }
-        }, animationTime + 100);
-    }
-
-    private void removePendingDismisses(int originalHeight) {
-        // No active animations, process all pending dismisses.
-        // Sort by descending position
-        Collections.sort(pendingDismisses);
-
-        int[] dismissPositions = new int[pendingDismisses.size()];
-        for (int i = pendingDismisses.size() - 1; i >= 0; i--) {
-            dismissPositions[i] = pendingDismisses.get(i).position;
-        }
-        swipeListView.onDismiss(dismissPositions);
-
-        ViewGroup.LayoutParams lp;
-        for (PendingDismissData pendingDismiss : pendingDismisses) {
-            // Reset view presentation
-            if (pendingDismiss.view != null) {
-                setAlpha(pendingDismiss.view, 1f);
-                setTranslationX(pendingDismiss.view, 0);
-                lp = pendingDismiss.view.getLayoutParams();
-                lp.height = originalHeight;
-                pendingDismiss.view.setLayoutParams(lp);
-            }
-        }
-
-        resetPendingDismisses();
-
+    protected void performDismiss(View dismissView, int dismissPosition) {
+        dismissTransaction.collapse(dismissView, dismissPosition, animationTime);
     }
 
 }
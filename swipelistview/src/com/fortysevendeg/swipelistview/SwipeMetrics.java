@@ -0,0 +1,102 @@
+/*
+ * Copyright (C) 2013 47 Degrees, LLC
+ * http://47deg.com
+ * hello@47deg.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.fortysevendeg.swipelistview;
+
+/**
+ * Metrics of one swipe gesture, from ACTION_DOWN to the end of the animation after the release.
+ * Times are in milliseconds of the uptime clock, like MotionEvent times
+ */
+public class SwipeMetrics {
+
+    int position;
+    int action;
+    long inputLatencyMillis;
+    int moveEvents;
+    int moveFrames;
+    long animationMillis;
+    int animationFrames;
+    int droppedFrames;
+
+    void reset(int position) {
+        this.position = position;
+        action = SwipeListView.SWIPE_ACTION_NONE;
+        inputLatencyMillis = -1;
+        moveEvents = 0;
+        moveFrames = 0;
+        animationMillis = 0;
+        animationFrames = 0;
+        droppedFrames = 0;
+    }
+
+    /**
+     * @return position of the swiped item
+     */
+    public int getPosition() {
+        return position;
+    }
+
+    /**
+     * @return action animated on release, SWIPE_ACTION_REVEAL, SWIPE_ACTION_DISMISS or SWIPE_ACTION_CHOICE
+     */
+    public int getAction() {
+        return action;
+    }
+
+    /**
+     * @return time from ACTION_DOWN to the first frame drawn with the row translated
+     */
+    public long getInputLatencyMillis() {
+        return inputLatencyMillis;
+    }
+
+    /**
+     * @return move events received while swiping
+     */
+    public int getMoveEvents() {
+        return moveEvents;
+    }
+
+    /**
+     * @return frames drawn while swiping, with the row moved since the previous frame
+     */
+    public int getMoveFrames() {
+        return moveFrames;
+    }
+
+    /**
+     * @return duration of the animation after the release
+     */
+    public long getAnimationMillis() {
+        return animationMillis;
+    }
+
+    /**
+     * @return frames drawn during the animation after the release
+     */
+    public int getAnimationFrames() {
+        return animationFrames;
+    }
+
+    /**
+     * @return frames the display could have shown during the animation but were not drawn
+     */
+    public int getDroppedFrames() {
+        return droppedFrames;
+    }
+
+}
@@ -0,0 +1,40 @@
+/*
+ * Copyright (C) 2013 47 Degrees, LLC
+ * http://47deg.com
+ * hello@47deg.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.fortysevendeg.swipelistview;
+
+/**
+ * Opt-in receiver of swipe performance metrics, set with SwipeListView.setMetricsListener
+ */
+public interface SwipeMetricsListener {
+
+    /**
+     * Called when the animation that follows a swipe ends
+     *
+     * @param metrics metrics of the gesture. The instance is reused, copy what you need to keep
+     */
+    void onGestureMeasured(SwipeMetrics metrics);
+
+    /**
+     * Called when dismissed items are committed to the listener
+     *
+     * @param count       items dismissed
+     * @param commitNanos time spent notifying the dismiss and restoring the rows
+     */
+    void onDismissCommitted(int count, long commitNanos);
+
+}
@@ -0,0 +1,147 @@
+/*
+ * Copyright (C) 2013 47 Degrees, LLC
+ * http://47deg.com
+ * hello@47deg.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.fortysevendeg.swipelistview;
+
+import android.content.Context;
+import android.os.SystemClock;
+import android.view.ViewTreeObserver;
+import android.view.WindowManager;
+
+/**
+ * Collects the metrics of the current gesture. Frames are counted with a pre-draw listener on
+ * the list, registered once, and the same SwipeMetrics instance is delivered for every gesture
+ */
+class SwipeMetricsTracker implements ViewTreeObserver.OnPreDrawListener {
+
+    private static final int IDLE = 0;
+    private static final int TRACKING = 1;
+    private static final int ANIMATING = 2;
+
+    private final SwipeMetricsListener listener;
+    private final SwipeMetrics metrics = new SwipeMetrics();
+    private final float frameMillis;
+
+    private int phase = IDLE;
+    private long downTime;
+    private long animationStart;
+    private boolean translated;
+
+    /**
+     * Constructor
+     *
+     * @param context  context used to read the display refresh rate
+     * @param listener listener
+     */
+    SwipeMetricsTracker(Context context, SwipeMetricsListener listener) {
+        this.listener = listener;
+        float refreshRate = ((WindowManager) context.getSystemService(Context.WINDOW_SERVICE)).getDefaultDisplay().getRefreshRate();
+        frameMillis = 1000f / (refreshRate > 0 ? refreshRate : 60f);
+    }
+
+    /**
+     * A swipeable row was touched
+     *
+     * @param eventTime time of the ACTION_DOWN event
+     * @param position  position of the row
+     */
+    void onDown(long eventTime, int position) {
+        metrics.reset(position);
+        downTime = eventTime;
+        translated = false;
+        phase = TRACKING;
+    }
+
+    void onMove() {
+        if (phase == TRACKING) {
+            metrics.moveEvents++;
+        }
+    }
+
+    /**
+     * The row was translated by a move event
+     */
+    void onTranslated() {
+        if (phase == TRACKING) {
+            translated = true;
+        }
+    }
+
+    /**
+     * The gesture ended without swiping
+     */
+    void cancel() {
+        if (phase == TRACKING) {
+            phase = IDLE;
+        }
+    }
+
+    /**
+     * The animation after the release was replaced by another one, nothing is delivered
+     */
+    void onAnimationReplaced() {
+        if (phase == ANIMATING) {
+            phase = IDLE;
+        }
+    }
+
+    /**
+     * The row was released and starts animating
+     *
+     * @param action swipe action animated
+     */
+    void onRelease(int action) {
+        if (phase == TRACKING) {
+            metrics.action = action;
+            animationStart = SystemClock.uptimeMillis();
+            phase = ANIMATING;
+        }
+    }
+
+    /**
+     * The animation after the release ended, the metrics are delivered
+     */
+    void onAnimationEnd() {
+        if (phase != ANIMATING) {
+            return;
+        }
+        phase = IDLE;
+        metrics.animationMillis = SystemClock.uptimeMillis() - animationStart;
+        int expectedFrames = (int) (metrics.animationMillis / frameMillis);
+        metrics.droppedFrames = Math.max(expectedFrames - metrics.animationFrames, 0);
+        listener.onGestureMeasured(metrics);
+    }
+
+    void onDismissCommitted(int count, long commitNanos) {
+        listener.onDismissCommitted(count, commitNanos);
+    }
+
+    @Override
+    public boolean onPreDraw() {
+        if (phase == TRACKING && translated) {
+            translated = false;
+            metrics.moveFrames++;
+            if (metrics.inputLatencyMillis < 0) {
+                metrics.inputLatencyMillis = SystemClock.uptimeMillis() - downTime;
+            }
+        } else if (phase == ANIMATING) {
+            metrics.animationFrames++;
+        }
+        return true;
+    }
+
+}
@@ -0,0 +1,139 @@
+/*
+ * Copyright (C) 2013 47 Degrees, LLC
+ * http://47deg.com
+ * hello@47deg.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.fortysevendeg.swipelistview;
+
+/**
+ * How a row reacts to a swipe. It is filled with the list settings and handed to the
+ * SwipeRowPolicyProvider once per gesture, on ACTION_DOWN
+ */
+public class SwipeRowPolicy {
+
+    int mode;
+    int actionLeft;
+    int actionRight;
+    float leftOffset;
+    float rightOffset;
+    float swapThreshold;
+
+    void set(int mode, int actionLeft, int actionRight, float leftOffset, float rightOffset, float swapThreshold) {
+        this.mode = mode;
+        this.actionLeft = actionLeft;
+        this.actionRight = actionRight;
+        this.leftOffset = leftOffset;
+        this.rightOffset = rightOffset;
+        this.swapThreshold = swapThreshold;
+    }
+
+    /**
+     * @return SWIPE_MODE_BOTH, SWIPE_MODE_LEFT, SWIPE_MODE_RIGHT or SWIPE_MODE_NONE
+     */
+    public int getMode() {
+        return mode;
+    }
+
+    /**
+     * Set the swipe mode. SWIPE_MODE_NONE rows are not tracked at all
+     *
+     * @param mode SWIPE_MODE_BOTH, SWIPE_MODE_LEFT, SWIPE_MODE_RIGHT or SWIPE_MODE_NONE
+     */
+    public void setMode(int mode) {
+        this.mode = mode;
+    }
+
+    /**
+     * @return action when swiping to the left
+     */
+    public int getActionLeft() {
+        return actionLeft;
+    }
+
+    /**
+     * Set the action when swiping to the left
+     *
+     * @param actionLeft SWIPE_ACTION_REVEAL, SWIPE_ACTION_DISMISS, SWIPE_ACTION_CHOICE or SWIPE_ACTION_NONE
+     */
+    public void setActionLeft(int actionLeft) {
+        this.actionLeft = actionLeft;
+    }
+
+    /**
+     * @return action when swiping to the right
+     */
+    public int getActionRight() {
+        return actionRight;
+    }
+
+    /**
+     * Set the action when swiping to the right
+     *
+     * @param actionRight SWIPE_ACTION_REVEAL, SWIPE_ACTION_DISMISS, SWIPE_ACTION_CHOICE or SWIPE_ACTION_NONE
+     */
+    public void setActionRight(int actionRight) {
+        this.actionRight = actionRight;
+    }
+
+    /**
+     * @return left offset
+     */
+    public float getLeftOffset() {
+        return leftOffset;
+    }
+
+    /**
+     * Set the left offset
+     *
+     * @param leftOffset Offset
+     */
+    public void setLeftOffset(float leftOffset) {
+        this.leftOffset = leftOffset;
+    }
+
+    /**
+     * @return right offset
+     */
+    public float getRightOffset() {
+        return rightOffset;
+    }
+
+    /**
+     * Set the right offset
+     *
+     * @param rightOffset Offset
+     */
+    public void setRightOffset(float rightOffset) {
+        this.rightOffset = rightOffset;
+    }
+
+    /**
+     * @return fraction of the row width to drag, without a fling, for the row to change state
+     */
+    public float getSwapThreshold() {
+        return swapThreshold;
+    }
+
+    /**
+     * Set the fraction of the row width to drag, without a fling, for the row to change state.
+     * Defaults to half the row
+     *
+     * @param swapThreshold fraction between 0 and 1
+     */
+    public void setSwapThreshold(float swapThreshold) {
+        this.swapThreshold = swapThreshold;
+    }
+
+}
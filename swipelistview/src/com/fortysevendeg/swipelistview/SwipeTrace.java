@@ -0,0 +1,91 @@
+/*
+ * Copyright (C) 2013 47 Degrees, LLC
+ * http://47deg.com
+ * hello@47deg.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.fortysevendeg.swipelistview;
+
+import android.os.Build;
+
+import java.lang.reflect.Method;
+
+/**
+ * Trace sections around the swipe phases, shown in systrace next to the app sections. Off by
+ * default, and a no-op before API 18. android.os.Trace is bound once when tracing gets enabled,
+ * as the maven build compiles against an older platform
+ */
+final class SwipeTrace {
+
+    static final String HIT_TEST = "SwipeListView:hitTest";
+    static final String SWIPE_START = "SwipeListView:swipeStart";
+    static final String MOVE = "SwipeListView:move";
+    static final String REVEAL = "SwipeListView:reveal";
+    static final String DISMISS_COLLAPSE = "SwipeListView:dismissCollapse";
+    static final String DISMISS_COMMIT = "SwipeListView:dismissCommit";
+    static final String RESET_ITEMS = "SwipeListView:resetItems";
+    static final String INTERCEPT = "SwipeListView:interceptTouch";
+
+    private static final int JELLY_BEAN_MR2 = 18;
+
+    private static boolean enabled = false;
+
+    private static Method beginSection;
+    private static Method endSection;
+
+    /**
+     * Sections are only opened from the UI thread, so the argument array is shared
+     */
+    private static final Object[] sectionArgs = new Object[1];
+
+    private SwipeTrace() {
+    }
+
+    static void setEnabled(boolean enabled) {
+        if (enabled && beginSection == null && Build.VERSION.SDK_INT >= JELLY_BEAN_MR2) {
+            try {
+                Class<?> trace = Class.forName("android.os.Trace");
+                beginSection = trace.getMethod("beginSection", String.class);
+                endSection = trace.getMethod("endSection");
+            } catch (Exception e) {
+                beginSection = null;
+                endSection = null;
+            }
+        }
+        SwipeTrace.enabled = enabled && beginSection != null;
+    }
+
+    static void begin(String section) {
+        if (enabled) {
+            sectionArgs[0] = section;
+            invoke(beginSection, sectionArgs);
+        }
+    }
+
+    static void end() {
+        if (enabled) {
+            invoke(endSection, null);
+        }
+    }
+
+    private static void invoke(Method method, Object[] args) {
+        try {
+            method.invoke(null, args);
+        } catch (Exception e) {
+            enabled = false;
+        }
+    }
+
+}
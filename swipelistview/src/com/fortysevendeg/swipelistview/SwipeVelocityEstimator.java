@@ -0,0 +1,57 @@
+/*
+ * Copyright (C) 2013 47 Degrees, LLC
+ * http://47deg.com
+ * hello@47deg.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.fortysevendeg.swipelistview;
+
+/**
+ * Estimates the pointer velocity of a swipe. Movements are added for every touch event, while the
+ * velocity is only computed when the swipe is classified and when the row is released
+ */
+public interface SwipeVelocityEstimator {
+
+    /**
+     * Forgets the movements of the previous gesture
+     */
+    void clear();
+
+    /**
+     * Adds a pointer position
+     *
+     * @param eventTime time of the position, in milliseconds
+     * @param x         x coordinate
+     * @param y         y coordinate
+     */
+    void addMovement(long eventTime, float x, float y);
+
+    /**
+     * Computes the velocity from the movements added so far
+     *
+     * @param units 1 for pixels per millisecond, 1000 for pixels per second
+     */
+    void computeVelocity(int units);
+
+    /**
+     * @return x velocity of the last computeVelocity
+     */
+    float getXVelocity();
+
+    /**
+     * @return y velocity of the last computeVelocity
+     */
+    float getYVelocity();
+
+}
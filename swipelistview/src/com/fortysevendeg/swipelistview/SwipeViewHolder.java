@@ -0,0 +1,68 @@
+/*
+ * Copyright (C) 2013 47 Degrees, LLC
+ * http://47deg.com
+ * hello@47deg.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.fortysevendeg.swipelistview;
+
+import android.view.View;
+
+/**
+ * Views of a row, looked up once when the list first sees the row and kept in a tag of the row,
+ * along with the animation running on it
+ */
+public class SwipeViewHolder {
+
+    final View row;
+    final View frontView;
+    View backView;
+    SwipeAnimator.EndListener animation;
+
+    SwipeViewHolder(View row, View frontView, View backView) {
+        this.row = row;
+        this.frontView = frontView;
+        this.backView = backView;
+    }
+
+    /**
+     * @return row view
+     */
+    public View getRow() {
+        return row;
+    }
+
+    /**
+     * @return front view, or null if the row has none
+     */
+    public View getFrontView() {
+        return frontView;
+    }
+
+    /**
+     * @return back view, its ViewStub while it is not inflated, or null if the row has none
+     */
+    public View getBackView() {
+        return backView;
+    }
+
+    /**
+     * @return true if the row or its front view is animating
+     */
+    public boolean isAnimating() {
+        return animation != null;
+    }
+
+}